@@ -3,6 +3,7 @@ package dev.alone.aFKZone;
 import dev.alone.aFKZone.command.AFKZoneCommand;
 import dev.alone.aFKZone.config.ConfigManager;
 import dev.alone.aFKZone.gui.LeaderboardGUI;
+import dev.alone.aFKZone.listener.PermissionRefreshListener;
 import dev.alone.aFKZone.listener.PlayerJoinQuitListener;
 import dev.alone.aFKZone.listener.PlayerMoveListener;
 import dev.alone.aFKZone.manager.AFKManager;
@@ -12,6 +13,7 @@ import dev.alone.aFKZone.manager.RegionManager;
 import dev.alone.aFKZone.manager.RewardManager;
 import dev.alone.aFKZone.placeholder.AFKPlaceholder;
 import dev.alone.aFKZone.task.ActionBarTask;
+import dev.alone.aFKZone.task.RegionScanTask;
 import dev.alone.aFKZone.task.RewardDistributionTask;
 import dev.alone.aFKZone.util.FoliaScheduler;
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
@@ -32,6 +34,7 @@ public final class AFKZone extends JavaPlugin {
     // Tasks
     private RewardDistributionTask rewardTask;
     private ActionBarTask actionBarTask;
+    private RegionScanTask regionScanTask;
     private ScheduledTask autoSaveTask;
 
     @Override
@@ -44,13 +47,11 @@ public final class AFKZone extends JavaPlugin {
         configManager = new ConfigManager(this);
         configManager.loadConfigs();
 
-        // Initialize WorldGuard
-        getLogger().info("Initializing WorldGuard integration...");
+        // Initialize zone detection (WorldGuard is optional)
+        getLogger().info("Initializing zone detection...");
         regionManager = new RegionManager(this);
         if (!regionManager.initialize()) {
-            getLogger().severe("Failed to initialize WorldGuard! Disabling plugin...");
-            getServer().getPluginManager().disablePlugin(this);
-            return;
+            getLogger().warning("No usable AFK zones: install WorldGuard or define native zones in config.yml");
         }
 
         // Initialize managers
@@ -64,6 +65,7 @@ public final class AFKZone extends JavaPlugin {
         getLogger().info("Registering event listeners...");
         getServer().getPluginManager().registerEvents(new PlayerMoveListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerJoinQuitListener(this), this);
+        getServer().getPluginManager().registerEvents(new PermissionRefreshListener(this), this);
         getServer().getPluginManager().registerEvents(new LeaderboardGUI(this, LeaderboardManager.SortType.REWARDS), this);
 
         // Register commands
@@ -83,13 +85,20 @@ public final class AFKZone extends JavaPlugin {
         actionBarTask = new ActionBarTask(this);
         actionBarTask.start();
 
+        regionScanTask = new RegionScanTask(this);
+        regionScanTask.start();
+
         // Start auto-save task if persistence is enabled
         if (configManager.isPersistData()) {
             int saveInterval = configManager.getSaveInterval();
             autoSaveTask = FoliaScheduler.runAsyncTimer(this, () -> {
                 dataManager.saveAllPlayerData();
+                afkManager.evictFlushed();
             }, saveInterval, saveInterval);
             getLogger().info("Auto-save task started (interval: " + saveInterval + " ticks)");
+
+            // Seed leaderboards with every stored player, including offline ones
+            FoliaScheduler.runAsync(this, () -> leaderboardManager.seed(dataManager.loadSummaries()));
         }
 
         // Register PlaceholderAPI expansion if available
@@ -101,7 +110,7 @@ public final class AFKZone extends JavaPlugin {
 
         long endTime = System.currentTimeMillis();
         getLogger().info("AFKZone has been enabled successfully! (" + (endTime - startTime) + "ms)");
-        getLogger().info("Region: " + configManager.getRegionName());
+        getLogger().info("Zones: " + String.join(", ", configManager.getZoneIds()));
         getLogger().info("Reward Interval: " + (configManager.getRewardInterval() / 1000) + " seconds");
         getLogger().info("Loaded " + configManager.getRewardPools().size() + " reward pools");
     }
@@ -117,6 +126,9 @@ public final class AFKZone extends JavaPlugin {
         if (actionBarTask != null) {
             actionBarTask.cancel();
         }
+        if (regionScanTask != null) {
+            regionScanTask.cancel();
+        }
         if (autoSaveTask != null) {
             autoSaveTask.cancel();
         }
@@ -127,8 +139,14 @@ public final class AFKZone extends JavaPlugin {
             dataManager.saveAllPlayerData();
         }
 
+        // Flush queued writes and stop the writer thread
+        if (dataManager != null) {
+            dataManager.shutdown();
+        }
+
         // Clear caches
         if (regionManager != null) {
+            regionManager.shutdown();
             regionManager.clearCache();
         }
 
@@ -2,8 +2,11 @@ package dev.alone.aFKZone.command;
 
 import dev.alone.aFKZone.AFKZone;
 import dev.alone.aFKZone.data.AFKPlayer;
+import dev.alone.aFKZone.data.Reward;
+import dev.alone.aFKZone.data.RewardPool;
 import dev.alone.aFKZone.gui.LeaderboardGUI;
 import dev.alone.aFKZone.manager.LeaderboardManager;
+import dev.alone.aFKZone.util.FoliaScheduler;
 import dev.alone.aFKZone.util.MessageUtil;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
@@ -17,6 +20,7 @@ import org.jetbrains.annotations.NotNull;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 /**
@@ -24,6 +28,9 @@ import java.util.stream.Collectors;
  */
 public class AFKZoneCommand implements CommandExecutor, TabCompleter {
 
+    private static final int DEFAULT_SIMULATION_SAMPLES = 100000;
+    private static final int MAX_SIMULATION_SAMPLES = 10000000;
+
     private final AFKZone plugin;
 
     /**
@@ -64,6 +71,9 @@ public class AFKZoneCommand implements CommandExecutor, TabCompleter {
             case "top":
                 return handleLeaderboard(sender, args);
 
+            case "simulate":
+                return handleSimulate(sender, args);
+
             case "help":
             default:
                 sendHelp(sender);
@@ -120,7 +130,7 @@ public class AFKZoneCommand implements CommandExecutor, TabCompleter {
         // Calculate time remaining
         long currentTime = System.currentTimeMillis();
         long timeSinceLastReward = currentTime - afkPlayer.getLastRewardTime();
-        long rewardInterval = plugin.getConfigManager().getRewardInterval();
+        long rewardInterval = plugin.getConfigManager().getRewardInterval(afkPlayer.getZoneId());
         long timeRemaining = Math.max(0, rewardInterval - timeSinceLastReward);
 
         sender.sendMessage(MessageUtil.toComponent(header));
@@ -145,13 +155,21 @@ public class AFKZoneCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        boolean success = plugin.getConfigManager().reloadConfigs();
-
-        if (success) {
-            sendMessage(sender, plugin.getConfigManager().getMessage("reload-success"));
-        } else {
-            sendMessage(sender, plugin.getConfigManager().getMessage("reload-failed"));
-        }
+        // Parse and build off-thread; the new pools are published atomically
+        FoliaScheduler.runAsync(plugin, () -> {
+            boolean success = plugin.getConfigManager().reloadConfigs();
+
+            FoliaScheduler.runGlobal(plugin, () -> {
+                if (success) {
+                    plugin.getRegionManager().rebuildSnapshots();
+                    plugin.getRewardManager().rescheduleAll();
+                    plugin.getRewardManager().refreshAllTiers();
+                    sendMessage(sender, plugin.getConfigManager().getMessage("reload-success"));
+                } else {
+                    sendMessage(sender, plugin.getConfigManager().getMessage("reload-failed"));
+                }
+            });
+        });
 
         return true;
     }
@@ -175,6 +193,11 @@ public class AFKZoneCommand implements CommandExecutor, TabCompleter {
 
         afkPlayer.setRewardsDisabled(!afkPlayer.isRewardsDisabled());
 
+        // Disabled players drop out of the deadline queue, so put them back in
+        if (!afkPlayer.isRewardsDisabled() && afkPlayer.isInRegion()) {
+            plugin.getRewardManager().scheduleReward(afkPlayer);
+        }
+
         String message = afkPlayer.isRewardsDisabled() ?
             "<red>AFK rewards have been disabled.</red>" :
             "<green>AFK rewards have been enabled.</green>";
@@ -197,10 +220,17 @@ public class AFKZoneCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(MessageUtil.toComponent("<dark_gray><strikethrough>----------</strikethrough></dark_gray> <aqua><bold>AFK Zone Info</bold></aqua> <dark_gray><strikethrough>----------</strikethrough></dark_gray>"));
         sender.sendMessage(MessageUtil.toComponent("<gray>Version: <yellow>" + plugin.getDescription().getVersion() + "</yellow></gray>"));
         sender.sendMessage(MessageUtil.toComponent("<gray>Author: <yellow>" + plugin.getDescription().getAuthors().get(0) + "</yellow></gray>"));
-        sender.sendMessage(MessageUtil.toComponent("<gray>Tracked Players: <yellow>" + plugin.getAFKManager().getPlayerCount() + "</yellow></gray>"));
+        sender.sendMessage(MessageUtil.toComponent("<gray>Tracked Players: <yellow>" + plugin.getAFKManager().getPlayerCount()
+            + "</yellow> <dark_gray>(" + plugin.getAFKManager().getRecentlyQuitCount() + " offline)</dark_gray></gray>"));
         sender.sendMessage(MessageUtil.toComponent("<gray>Players in AFK Region: <yellow>" + plugin.getAFKManager().getPlayersInRegionCount() + "</yellow></gray>"));
         sender.sendMessage(MessageUtil.toComponent("<gray>Reward Interval: <yellow>" + MessageUtil.formatTime(plugin.getConfigManager().getRewardInterval()) + "</yellow></gray>"));
         sender.sendMessage(MessageUtil.toComponent("<gray>Loaded Reward Pools: <yellow>" + plugin.getConfigManager().getRewardPools().size() + "</yellow></gray>"));
+        if (sender.hasPermission("afkzone.admin")) {
+            sender.sendMessage(MessageUtil.toComponent("<gray>" + plugin.getRegionManager().getCacheStats() + "</gray>"));
+            sender.sendMessage(MessageUtil.toComponent("<gray>" + plugin.getRegionManager().getCheckStats() + "</gray>"));
+            sender.sendMessage(MessageUtil.toComponent("<gray>" + plugin.getDataManager().getWriteStats() + "</gray>"));
+            sender.sendMessage(MessageUtil.toComponent("<gray>" + plugin.getAFKManager().getJoinStats() + "</gray>"));
+        }
         sender.sendMessage(MessageUtil.toComponent("<dark_gray><strikethrough>----------------------------------</strikethrough></dark_gray>"));
 
         return true;
@@ -231,6 +261,7 @@ public class AFKZoneCommand implements CommandExecutor, TabCompleter {
             afkPlayer.reset();
             afkPlayer.setTotalRewards(0);
             afkPlayer.setTotalAFKTime(0);
+            plugin.getLeaderboardManager().update(afkPlayer);
 
             sender.sendMessage(MessageUtil.toComponent(plugin.getConfigManager().getPrefix() +
                 " <green>Reset AFK data for " + target.getName() + "</green>"));
@@ -271,6 +302,72 @@ public class AFKZoneCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    /**
+     * Handle /afkzone simulate <pool> [samples]
+     * Draws rewards from a pool off-thread and compares the observed
+     * distribution against the configured weights, without granting anything
+     */
+    private boolean handleSimulate(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("afkzone.simulate")) {
+            sendMessage(sender, plugin.getConfigManager().getMessage("no-permission"));
+            return true;
+        }
+
+        if (args.length < 2) {
+            sender.sendMessage(MessageUtil.toComponent("<red>Usage: /afkzone simulate <pool> [samples]</red>"));
+            return true;
+        }
+
+        RewardPool pool = plugin.getConfigManager().getRewardPools().get(args[1]);
+        if (pool == null) {
+            sender.sendMessage(MessageUtil.toComponent("<red>Unknown reward pool: " + args[1] + "</red>"));
+            return true;
+        }
+
+        int samples = DEFAULT_SIMULATION_SAMPLES;
+        if (args.length > 2) {
+            try {
+                samples = Math.max(1, Math.min(MAX_SIMULATION_SAMPLES, Integer.parseInt(args[2])));
+            } catch (NumberFormatException e) {
+                sender.sendMessage(MessageUtil.toComponent("<red>Invalid sample count: " + args[2] + "</red>"));
+                return true;
+            }
+        }
+
+        int sampleCount = samples;
+        FoliaScheduler.runAsync(plugin, () -> {
+            List<Reward> poolRewards = pool.getRewards();
+            int[] counts = new int[poolRewards.size()];
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < sampleCount; i++) {
+                counts[pool.selectIndex(random)]++;
+            }
+            long elapsedMicros = (System.nanoTime() - start) / 1000;
+
+            // Largest absolute gap between observed and configured share
+            double maxDeviation = 0;
+            List<Component> lines = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                Reward reward = poolRewards.get(i);
+                double expected = pool.getProbability(reward) * 100;
+                double observed = counts[i] * 100.0 / sampleCount;
+                maxDeviation = Math.max(maxDeviation, Math.abs(observed - expected));
+                lines.add(MessageUtil.toComponent("<gray>" + reward.getDisplayName() + "<gray>: <yellow>"
+                    + String.format("%.3f%%", observed) + "</yellow> (expected " + String.format("%.3f%%", expected) + ")</gray>"));
+            }
+
+            sender.sendMessage(MessageUtil.toComponent("<aqua>Simulated " + sampleCount + " draws from pool '"
+                + pool.getName() + "' in " + elapsedMicros + "us</aqua>"));
+            lines.forEach(sender::sendMessage);
+            sender.sendMessage(MessageUtil.toComponent("<gray>Max deviation: <yellow>"
+                + String.format("%.3f", maxDeviation) + " pts</yellow></gray>"));
+        });
+
+        return true;
+    }
+
     /**
      * Send help menu (operator-aware)
      * Non-OP: Shows stats, leaderboard, toggle
@@ -294,6 +391,7 @@ public class AFKZoneCommand implements CommandExecutor, TabCompleter {
             sender.sendMessage(MessageUtil.toComponent("<yellow>/afkzone reload</yellow> <gray>- Reload configuration</gray> <red>(Admin)</red>"));
             sender.sendMessage(MessageUtil.toComponent("<yellow>/afkzone reset <player></yellow> <gray>- Reset player data</gray> <red>(Admin)</red>"));
             sender.sendMessage(MessageUtil.toComponent("<yellow>/afkzone info</yellow> <gray>- View plugin information</gray>"));
+            sender.sendMessage(MessageUtil.toComponent("<yellow>/afkzone simulate <pool> [samples]</yellow> <gray>- Check reward selection distribution</gray> <red>(Admin)</red>"));
         }
 
         sender.sendMessage(MessageUtil.toComponent(footer));
@@ -314,7 +412,7 @@ public class AFKZoneCommand implements CommandExecutor, TabCompleter {
         List<String> completions = new ArrayList<>();
 
         if (args.length == 1) {
-            List<String> subCommands = Arrays.asList("stats", "reload", "toggle", "info", "reset", "leaderboard", "help");
+            List<String> subCommands = Arrays.asList("stats", "reload", "toggle", "info", "reset", "leaderboard", "simulate", "help");
             return subCommands.stream()
                 .filter(cmd -> cmd.toLowerCase().startsWith(args[0].toLowerCase()))
                 .collect(Collectors.toList());
@@ -331,6 +429,10 @@ public class AFKZoneCommand implements CommandExecutor, TabCompleter {
                 return sortOptions.stream()
                     .filter(option -> option.toLowerCase().startsWith(args[1].toLowerCase()))
                     .collect(Collectors.toList());
+            } else if (args[0].equalsIgnoreCase("simulate") && sender.hasPermission("afkzone.simulate")) {
+                return plugin.getConfigManager().getRewardPools().keySet().stream()
+                    .filter(pool -> pool.toLowerCase().startsWith(args[1].toLowerCase()))
+                    .collect(Collectors.toList());
             }
         }
 
@@ -3,7 +3,13 @@ package dev.alone.aFKZone.config;
 import dev.alone.aFKZone.AFKZone;
 import dev.alone.aFKZone.data.Reward;
 import dev.alone.aFKZone.data.RewardPool;
+import dev.alone.aFKZone.data.Zone;
+import dev.alone.aFKZone.data.ZoneShape;
+import dev.alone.aFKZone.util.MessageTemplate;
+import net.kyori.adventure.sound.Sound;
+import net.kyori.adventure.title.Title;
 import org.bukkit.Material;
+import org.bukkit.Particle;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -15,7 +21,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -26,12 +34,9 @@ import java.util.logging.Level;
 public class ConfigManager {
 
     private final AFKZone plugin;
-    private FileConfiguration config;
-    private FileConfiguration rewards;
-    private FileConfiguration messages;
-    private FileConfiguration leaderboardGui;
 
-    private final Map<String, RewardPool> rewardPools;
+    // Everything loaded from the config files, built off to the side and swapped in whole on reload
+    private volatile Snapshot snapshot;
 
     /**
      * Create a new ConfigManager
@@ -39,7 +44,6 @@ public class ConfigManager {
      */
     public ConfigManager(AFKZone plugin) {
         this.plugin = plugin;
-        this.rewardPools = new HashMap<>();
     }
 
     /**
@@ -51,26 +55,23 @@ public class ConfigManager {
             plugin.getDataFolder().mkdirs();
         }
 
-        // Load or create config.yml
+        // Create config.yml if it doesn't exist
         File configFile = new File(plugin.getDataFolder(), "config.yml");
         if (!configFile.exists()) {
             plugin.saveResource("config.yml", false);
         }
-        config = YamlConfiguration.loadConfiguration(configFile);
 
-        // Load or create rewards.yml
+        // Create rewards.yml if it doesn't exist
         File rewardsFile = new File(plugin.getDataFolder(), "rewards.yml");
         if (!rewardsFile.exists()) {
             plugin.saveResource("rewards.yml", false);
         }
-        rewards = YamlConfiguration.loadConfiguration(rewardsFile);
 
-        // Load or create messages.yml
+        // Create messages.yml if it doesn't exist
         File messagesFile = new File(plugin.getDataFolder(), "messages.yml");
         if (!messagesFile.exists()) {
             plugin.saveResource("messages.yml", false);
         }
-        messages = YamlConfiguration.loadConfiguration(messagesFile);
 
         // Create gui folder if it doesn't exist
         File guiFolder = new File(plugin.getDataFolder(), "gui");
@@ -78,40 +79,28 @@ public class ConfigManager {
             guiFolder.mkdirs();
         }
 
-        // Load or create gui/leaderboard.yml
+        // Create gui/leaderboard.yml if it doesn't exist
         File leaderboardGuiFile = new File(guiFolder, "leaderboard.yml");
         if (!leaderboardGuiFile.exists()) {
             plugin.saveResource("gui/leaderboard.yml", false);
         }
-        leaderboardGui = YamlConfiguration.loadConfiguration(leaderboardGuiFile);
 
-        // Load reward pools
-        loadRewardPools();
+        snapshot = loadSnapshot();
 
         plugin.getLogger().info("Configuration files loaded successfully!");
     }
 
     /**
      * Reload all configuration files
+     * Safe to call off the main thread: everything is parsed and built first,
+     * then published in a single write, so readers see either the old or the
+     * new configuration and never a mix of the two
      * @return true if successful
      */
     public boolean reloadConfigs() {
         try {
-            File configFile = new File(plugin.getDataFolder(), "config.yml");
-            config = YamlConfiguration.loadConfiguration(configFile);
-
-            File rewardsFile = new File(plugin.getDataFolder(), "rewards.yml");
-            rewards = YamlConfiguration.loadConfiguration(rewardsFile);
-
-            File messagesFile = new File(plugin.getDataFolder(), "messages.yml");
-            messages = YamlConfiguration.loadConfiguration(messagesFile);
-
-            File leaderboardGuiFile = new File(plugin.getDataFolder(), "gui/leaderboard.yml");
-            leaderboardGui = YamlConfiguration.loadConfiguration(leaderboardGuiFile);
-
-            // Clear and reload reward pools
-            rewardPools.clear();
-            loadRewardPools();
+            // In-flight selections finish against the pool they already hold
+            snapshot = loadSnapshot();
 
             plugin.getLogger().info("Configuration files reloaded successfully!");
             return true;
@@ -122,13 +111,71 @@ public class ConfigManager {
     }
 
     /**
-     * Load reward pools from rewards.yml
+     * Read every config file and build the values derived from them
+     * @return A snapshot that is not yet visible to readers
+     */
+    private Snapshot loadSnapshot() {
+        File dataFolder = plugin.getDataFolder();
+        FileConfiguration config = YamlConfiguration.loadConfiguration(new File(dataFolder, "config.yml"));
+        FileConfiguration rewards = YamlConfiguration.loadConfiguration(new File(dataFolder, "rewards.yml"));
+        FileConfiguration messages = YamlConfiguration.loadConfiguration(new File(dataFolder, "messages.yml"));
+        FileConfiguration leaderboardGui = YamlConfiguration.loadConfiguration(new File(dataFolder, "gui/leaderboard.yml"));
+
+        Settings settings = new Settings(config, plugin.getLogger());
+        Map<String, RewardPool> rewardPools = loadRewardPools(rewards);
+        Map<String, Zone> zonesById = loadZones(config, settings, rewardPools);
+        Map<String, MessageTemplate> templates = loadMessageTemplates(messages);
+
+        return new Snapshot(config, rewards, messages, leaderboardGui, settings, rewardPools, zonesById, templates);
+    }
+
+    /**
+     * Compile the messages sent on hot paths (zone enter/exit and rewards)
+     * @param messages The loaded messages.yml
+     * @return Immutable map of templates by messages.yml path
+     */
+    private Map<String, MessageTemplate> loadMessageTemplates(FileConfiguration messages) {
+        String prefix = getPrefix(messages);
+        Map<String, MessageTemplate> compiled = new HashMap<>();
+
+        compileTemplate(compiled, messages, prefix, "messages.enter-region",
+            "%prefix% <green>You entered the AFK Pool! Earn rewards every <yellow>%reward_interval%</yellow>.</green>",
+            "reward_interval");
+        compileTemplate(compiled, messages, prefix, "messages.exit-region",
+            "%prefix% <red>You left the AFK Pool. Progress reset.</red>");
+        compileTemplate(compiled, messages, prefix, "messages.reward-received",
+            "Message not found: reward-received", "reward_name");
+        compileTemplate(compiled, messages, prefix, "messages.inventory-full",
+            "Message not found: inventory-full");
+        compileTemplate(compiled, messages, prefix, "titles.enter-region.title",
+            "<green><bold>AFK POOL</bold></green>");
+        compileTemplate(compiled, messages, prefix, "titles.enter-region.subtitle",
+            "<gray>Stay here to earn rewards!</gray>");
+        compileTemplate(compiled, messages, prefix, "titles.reward-received.title",
+            "<gold><bold>REWARD RECEIVED!</bold></gold>", "reward_name");
+        compileTemplate(compiled, messages, prefix, "titles.reward-received.subtitle",
+            "<yellow>%reward_name%</yellow>", "reward_name");
+
+        return Collections.unmodifiableMap(compiled);
+    }
+
+    private void compileTemplate(Map<String, MessageTemplate> compiled, FileConfiguration messages, String prefix,
+                                 String path, String def, String... slots) {
+        compiled.put(path, MessageTemplate.compile(messages.getString(path, def), prefix, slots));
+    }
+
+    /**
+     * Build reward pools from rewards.yml
+     * @param source The loaded rewards.yml
+     * @return Immutable map of compiled pools by name
      */
-    private void loadRewardPools() {
-        for (String key : rewards.getKeys(false)) {
-            if (!rewards.isConfigurationSection(key)) continue;
+    private Map<String, RewardPool> loadRewardPools(FileConfiguration source) {
+        Map<String, RewardPool> pools = new LinkedHashMap<>();
 
-            ConfigurationSection poolSection = rewards.getConfigurationSection(key);
+        for (String key : source.getKeys(false)) {
+            if (!source.isConfigurationSection(key)) continue;
+
+            ConfigurationSection poolSection = source.getConfigurationSection(key);
             if (poolSection == null) continue;
 
             boolean enabled = poolSection.getBoolean("enabled", true);
@@ -151,10 +198,121 @@ public class ConfigManager {
             }
 
             if (pool.hasRewards()) {
-                rewardPools.put(key, pool);
+                if (!pool.compile()) {
+                    plugin.getLogger().warning("Reward pool '" + key + "' has no reward with a positive chance, skipping");
+                    continue;
+                }
+                pools.put(key, pool);
                 plugin.getLogger().info("Loaded reward pool '" + key + "' with " + pool.getRewards().size() + " rewards");
             }
         }
+
+        return Collections.unmodifiableMap(pools);
+    }
+
+    /**
+     * Load AFK zones from config.yml
+     * Falls back to a single zone built from settings.region-name
+     * @param config The loaded config.yml
+     * @param settings Settings parsed from the same config.yml
+     * @param rewardPools The pools zones may refer to
+     * @return Immutable map of zones by ID, in config order
+     */
+    private Map<String, Zone> loadZones(FileConfiguration config, Settings settings, Map<String, RewardPool> rewardPools) {
+        Map<String, Zone> loaded = new LinkedHashMap<>();
+        ConfigurationSection zonesSection = config.getConfigurationSection("zones");
+
+        if (zonesSection != null) {
+            for (String key : zonesSection.getKeys(false)) {
+                ConfigurationSection zoneSection = zonesSection.getConfigurationSection(key);
+                if (zoneSection == null) continue;
+
+                String pool = zoneSection.getString("pool");
+                RewardPool rewardPool = pool != null ? rewardPools.get(pool) : null;
+                if (pool != null && (rewardPool == null || !rewardPool.isEnabled())) {
+                    // Warned once here; the zone uses each player's tier pool instead
+                    plugin.getLogger().warning("Zone '" + key + "' uses unknown or disabled reward pool '" + pool
+                        + "', falling back to player tiers");
+                    pool = null;
+                }
+
+                long interval = zoneSection.contains("interval") ?
+                    zoneSection.getInt("interval") * 1000L : settings.getRewardInterval();
+                int priority = zoneSection.getInt("priority", 0);
+
+                if (zoneSection.contains("world")) {
+                    ZoneShape shape = loadZoneShape(key, zoneSection);
+                    if (shape != null) {
+                        loaded.put(key, new Zone(key, zoneSection.getString("world"), shape, pool, interval, priority));
+                    }
+                } else {
+                    String region = zoneSection.getString("region", key);
+                    loaded.put(key, new Zone(key, region, pool, interval, priority));
+                }
+            }
+        }
+
+        if (loaded.isEmpty()) {
+            loaded.put("default", new Zone("default", settings.getRegionName(), null, settings.getRewardInterval(), 0));
+        }
+
+        plugin.getLogger().info("Loaded " + loaded.size() + " AFK zone(s)");
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    /**
+     * Load the shape of a native zone
+     * @param id The zone ID
+     * @param section The zone configuration section
+     * @return The shape, or null if invalid
+     */
+    private ZoneShape loadZoneShape(String id, ConfigurationSection section) {
+        String typeString = section.getString("type", "CUBOID").toUpperCase();
+        try {
+            switch (ZoneShape.Type.valueOf(typeString)) {
+                case CUBOID: {
+                    int[] min = parseCoordinates(section.getString("min", ""), 3);
+                    int[] max = parseCoordinates(section.getString("max", ""), 3);
+                    return ZoneShape.cuboid(id, min[0], min[1], min[2], max[0], max[1], max[2]);
+                }
+                case POLYGON: {
+                    List<String> points = section.getStringList("points");
+                    int[] pointsX = new int[points.size()];
+                    int[] pointsZ = new int[points.size()];
+                    for (int i = 0; i < points.size(); i++) {
+                        int[] point = parseCoordinates(points.get(i), 2);
+                        pointsX[i] = point[0];
+                        pointsZ[i] = point[1];
+                    }
+                    return ZoneShape.polygon(id, pointsX, pointsZ,
+                        section.getInt("min-y", -64), section.getInt("max-y", 319));
+                }
+                default:
+                    return null;
+            }
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Invalid shape for zone '" + id + "': " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Parse comma separated block coordinates (e.g. "100,64,-20")
+     * @param value The string to parse
+     * @param count The expected number of coordinates
+     * @return The coordinates
+     */
+    private int[] parseCoordinates(String value, int count) {
+        String[] parts = value.split(",");
+        if (parts.length != count) {
+            throw new IllegalArgumentException("expected " + count + " coordinates but got '" + value + "'");
+        }
+
+        int[] coordinates = new int[count];
+        for (int i = 0; i < count; i++) {
+            coordinates[i] = Integer.parseInt(parts[i].trim());
+        }
+        return coordinates;
     }
 
     /**
@@ -177,7 +335,9 @@ public class ConfigManager {
 
             switch (type) {
                 case ITEM:
-                    loadItemReward(reward, section);
+                    if (!loadItemReward(reward, section)) {
+                        return null;
+                    }
                     break;
                 case COMMAND:
                     reward.setCommands(section.getStringList("commands"));
@@ -198,17 +358,17 @@ public class ConfigManager {
      * Load item-specific reward data
      * @param reward The reward to populate
      * @param section The configuration section
+     * @return false if the reward has no valid item material and must be skipped
      */
-    private void loadItemReward(Reward reward, ConfigurationSection section) {
+    private boolean loadItemReward(Reward reward, ConfigurationSection section) {
         // Material
-        String materialString = section.getString("material", "STONE");
-        try {
-            Material material = Material.valueOf(materialString.toUpperCase());
-            reward.setMaterial(material);
-        } catch (IllegalArgumentException e) {
-            plugin.getLogger().warning("Invalid material: " + materialString);
-            reward.setMaterial(Material.STONE);
+        String materialString = section.getString("material");
+        Material material = materialString != null ? Material.matchMaterial(materialString) : null;
+        if (material == null || !material.isItem() || material.isAir()) {
+            plugin.getLogger().warning("Skipping reward '" + section.getCurrentPath() + "': invalid material '" + materialString + "'");
+            return false;
         }
+        reward.setMaterial(material);
 
         // Amount
         reward.setAmount(section.getInt("amount", 1));
@@ -264,124 +424,268 @@ public class ConfigManager {
         if (section.contains("custom-model-data")) {
             reward.setCustomModelData(section.getInt("custom-model-data"));
         }
+
+        // Build the item once; grants hand out clones
+        reward.compileItem();
+        return true;
     }
 
     // Getters for configuration values
 
     public FileConfiguration getConfig() {
-        return config;
+        return snapshot.config;
     }
 
     public FileConfiguration getRewards() {
-        return rewards;
+        return snapshot.rewards;
     }
 
     public FileConfiguration getMessages() {
-        return messages;
+        return snapshot.messages;
     }
 
     public FileConfiguration getLeaderboardGui() {
-        return leaderboardGui;
+        return snapshot.leaderboardGui;
     }
 
     public Map<String, RewardPool> getRewardPools() {
-        return rewardPools;
+        return snapshot.rewardPools;
+    }
+
+    public List<Zone> getZones() {
+        return snapshot.zones;
+    }
+
+    public List<String> getZoneIds() {
+        return new ArrayList<>(snapshot.zonesById.keySet());
+    }
+
+    public Zone getZone(String id) {
+        return id != null ? snapshot.zonesById.get(id) : null;
+    }
+
+    public Zone getZoneByRegion(String regionName) {
+        Zone best = null;
+        for (Zone zone : snapshot.zones) {
+            if (zone.getRegionName() != null && zone.getRegionName().equalsIgnoreCase(regionName)
+                && (best == null || zone.getPriority() > best.getPriority())) {
+                best = zone;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Get the current typed config snapshot
+     * Hold on to the returned object to read several values consistently
+     * @return Settings snapshot
+     */
+    public Settings getSettings() {
+        return snapshot.settings;
+    }
+
+    public boolean isAsyncRegionChecks() {
+        return snapshot.settings.isAsyncRegionChecks();
+    }
+
+    public int getRegionCacheDuration() {
+        return snapshot.settings.getRegionCacheDuration();
+    }
+
+    public int getRegionRefreshInterval() {
+        return snapshot.settings.getRegionRefreshInterval();
+    }
+
+    public int getRecentPlayerCacheSize() {
+        return snapshot.settings.getRecentPlayerCacheSize();
+    }
+
+    public long getRecentPlayerTtl() {
+        return snapshot.settings.getRecentPlayerTtl();
     }
 
     public String getRegionName() {
-        return config.getString("settings.region-name", "afk");
+        return snapshot.settings.getRegionName();
     }
 
     public int getRegionCheckInterval() {
-        return config.getInt("settings.region-check-interval", 5);
+        return snapshot.settings.getRegionCheckInterval();
+    }
+
+    public boolean isRegionScannerEnabled() {
+        return snapshot.settings.isRegionScannerEnabled();
+    }
+
+    public int getPlayersPerTick() {
+        return snapshot.settings.getPlayersPerTick();
     }
 
     public boolean isPersistData() {
-        return config.getBoolean("settings.persist-data", true);
+        return snapshot.settings.isPersistData();
+    }
+
+    public String getDatabaseType() {
+        return snapshot.settings.getDatabaseType();
+    }
+
+    public String getSqliteFile() {
+        return snapshot.settings.getSqliteFile();
+    }
+
+    public int getSqlitePoolSize() {
+        return snapshot.settings.getSqlitePoolSize();
     }
 
     public int getSaveInterval() {
-        return config.getInt("settings.save-interval", 6000);
+        return snapshot.settings.getSaveInterval();
     }
 
     public long getRewardInterval() {
-        return config.getInt("rewards.interval", 300) * 1000L; // Convert to milliseconds
+        return snapshot.settings.getRewardInterval();
+    }
+
+    public long getRewardInterval(String zoneId) {
+        Snapshot current = snapshot;
+        Zone zone = zoneId != null ? current.zonesById.get(zoneId) : null;
+        return zone != null ? zone.getRewardInterval() : current.settings.getRewardInterval();
     }
 
     public boolean isDropIfFull() {
-        return config.getBoolean("rewards.drop-if-full", true);
+        return snapshot.settings.isDropIfFull();
     }
 
     public List<String> getTierPriority() {
-        return config.getStringList("rewards.tier-priority");
+        return snapshot.settings.getTierPriority();
     }
 
     public boolean isSoundEnabled() {
-        return config.getBoolean("rewards.sound.enabled", true);
+        return snapshot.settings.isSoundEnabled();
     }
 
     public String getSoundType() {
-        return config.getString("rewards.sound.type", "ENTITY_PLAYER_LEVELUP");
+        return snapshot.settings.getSoundType();
     }
 
     public float getSoundVolume() {
-        return (float) config.getDouble("rewards.sound.volume", 1.0);
+        return snapshot.settings.getSoundVolume();
     }
 
     public float getSoundPitch() {
-        return (float) config.getDouble("rewards.sound.pitch", 1.0);
+        return snapshot.settings.getSoundPitch();
+    }
+
+    public Sound getRewardSound() {
+        return snapshot.settings.getRewardSound();
+    }
+
+    public Particle getRewardParticle() {
+        return snapshot.settings.getRewardParticle();
+    }
+
+    public Title.Times getTitleTimes() {
+        return snapshot.settings.getTitleTimes();
     }
 
     public boolean isTitleEnabled() {
-        return config.getBoolean("visuals.title.enabled", true);
+        return snapshot.settings.isTitleEnabled();
     }
 
     public int getTitleFadeIn() {
-        return config.getInt("visuals.title.fade-in", 10);
+        return snapshot.settings.getTitleFadeIn();
     }
 
     public int getTitleStay() {
-        return config.getInt("visuals.title.stay", 60);
+        return snapshot.settings.getTitleStay();
     }
 
     public int getTitleFadeOut() {
-        return config.getInt("visuals.title.fade-out", 20);
+        return snapshot.settings.getTitleFadeOut();
     }
 
     public boolean isActionBarEnabled() {
-        return config.getBoolean("visuals.actionbar.enabled", true);
+        return snapshot.settings.isActionBarEnabled();
     }
 
     public int getActionBarUpdateInterval() {
-        return config.getInt("visuals.actionbar.update-interval", 20);
+        return snapshot.settings.getActionBarUpdateInterval();
     }
 
     public boolean isParticlesEnabled() {
-        return config.getBoolean("visuals.particles.enabled", true);
+        return snapshot.settings.isParticlesEnabled();
     }
 
     public String getParticleType() {
-        return config.getString("visuals.particles.type", "VILLAGER_HAPPY");
+        return snapshot.settings.getParticleType();
     }
 
     public int getParticleCount() {
-        return config.getInt("visuals.particles.count", 20);
+        return snapshot.settings.getParticleCount();
     }
 
     public double getParticleSpread() {
-        return config.getDouble("visuals.particles.spread", 1.0);
+        return snapshot.settings.getParticleSpread();
     }
 
     public boolean isDebug() {
-        return config.getBoolean("settings.debug", false);
+        return snapshot.settings.isDebug();
     }
 
     // Message getters
     public String getMessage(String path) {
-        return messages.getString("messages." + path, "Message not found: " + path);
+        return snapshot.messages.getString("messages." + path, "Message not found: " + path);
+    }
+
+    /**
+     * Get a precompiled message template
+     * @param path The messages.yml path (e.g. "messages.enter-region")
+     * @return The template, compiled on demand if the path is not precompiled
+     */
+    public MessageTemplate getTemplate(String path) {
+        Snapshot current = snapshot;
+        MessageTemplate template = current.templates.get(path);
+        if (template == null) {
+            template = MessageTemplate.compile(current.messages.getString(path, ""), getPrefix(current.messages));
+        }
+        return template;
     }
 
     public String getPrefix() {
+        return getPrefix(snapshot.messages);
+    }
+
+    private static String getPrefix(FileConfiguration messages) {
         return messages.getString("prefix", "<gradient:#91EFF6:#FFEAC2><bold>AFKPOOL</bold></gradient> <dark_gray><bold>»</bold></dark_gray>");
     }
+
+    /**
+     * Everything read from the config files at one load
+     * Never mutated after construction, so one volatile read sees a consistent set
+     */
+    private static final class Snapshot {
+        private final FileConfiguration config;
+        private final FileConfiguration rewards;
+        private final FileConfiguration messages;
+        private final FileConfiguration leaderboardGui;
+        private final Settings settings;
+        private final Map<String, RewardPool> rewardPools;
+        // Replaced (never mutated) on reload so the region index can detect changes
+        private final List<Zone> zones;
+        private final Map<String, Zone> zonesById;
+        // Messages parsed once per load, keyed by messages.yml path
+        private final Map<String, MessageTemplate> templates;
+
+        private Snapshot(FileConfiguration config, FileConfiguration rewards, FileConfiguration messages,
+                         FileConfiguration leaderboardGui, Settings settings, Map<String, RewardPool> rewardPools,
+                         Map<String, Zone> zonesById, Map<String, MessageTemplate> templates) {
+            this.config = config;
+            this.rewards = rewards;
+            this.messages = messages;
+            this.leaderboardGui = leaderboardGui;
+            this.settings = settings;
+            this.rewardPools = rewardPools;
+            this.zones = Collections.unmodifiableList(new ArrayList<>(zonesById.values()));
+            this.zonesById = zonesById;
+            this.templates = templates;
+        }
+    }
 }
@@ -0,0 +1,313 @@
+package dev.alone.aFKZone.config;
+
+import net.kyori.adventure.sound.Sound;
+import net.kyori.adventure.title.Title;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Particle;
+import org.bukkit.Registry;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Immutable, typed snapshot of config.yml
+ * Built once per load and published as a whole, so readers always see
+ * values from a single version of the file
+ */
+public final class Settings {
+
+    // settings
+    private final String regionName;
+    private final int regionCheckInterval;
+    private final boolean persistData;
+    private final int saveInterval;
+    private final boolean debug;
+
+    // database
+    private final String databaseType;
+    private final String sqliteFile;
+    private final int sqlitePoolSize;
+
+    // performance
+    private final boolean asyncRegionChecks;
+    private final boolean regionScannerEnabled;
+    private final int playersPerTick;
+    private final int regionCacheDuration;
+    private final int regionRefreshInterval;
+    private final int recentPlayerCacheSize;
+    private final long recentPlayerTtl;
+
+    // rewards
+    private final long rewardInterval;
+    private final boolean dropIfFull;
+    private final List<String> tierPriority;
+    private final boolean soundEnabled;
+    private final String soundType;
+    private final float soundVolume;
+    private final float soundPitch;
+
+    // visuals
+    private final boolean titleEnabled;
+    private final int titleFadeIn;
+    private final int titleStay;
+    private final int titleFadeOut;
+    private final boolean actionBarEnabled;
+    private final int actionBarUpdateInterval;
+    private final boolean particlesEnabled;
+    private final String particleType;
+    private final int particleCount;
+    private final double particleSpread;
+
+    // Resolved effects; null when disabled or invalid
+    private final Sound rewardSound;
+    private final Particle rewardParticle;
+    private final Title.Times titleTimes;
+
+    /**
+     * Read a snapshot from config.yml
+     * Invalid effect values are reported once here and the effect is skipped
+     * @param config The loaded config.yml
+     * @param logger Logger for validation warnings
+     */
+    public Settings(FileConfiguration config, Logger logger) {
+        this.regionName = config.getString("settings.region-name", "afk");
+        this.regionCheckInterval = config.getInt("settings.region-check-interval", 5);
+        this.persistData = config.getBoolean("settings.persist-data", true);
+        this.saveInterval = config.getInt("settings.save-interval", 6000);
+        this.debug = config.getBoolean("settings.debug", false);
+
+        this.databaseType = config.getString("database.type", "YAML").toUpperCase();
+        this.sqliteFile = config.getString("database.sqlite.file", "players.db");
+        this.sqlitePoolSize = config.getInt("database.sqlite.pool-size", 4);
+
+        this.asyncRegionChecks = config.getBoolean("performance.async-region-checks", true);
+        this.regionScannerEnabled = config.getBoolean("performance.region-scanner", false);
+        this.playersPerTick = config.getInt("performance.players-per-tick", 50);
+        this.regionCacheDuration = config.getInt("performance.region-cache-duration", 20);
+        this.regionRefreshInterval = config.getInt("performance.region-refresh-interval", 100);
+        this.recentPlayerCacheSize = Math.max(0, config.getInt("performance.recent-player-cache", 200));
+        this.recentPlayerTtl = config.getInt("performance.recent-player-ttl", 300) * 1000L; // Convert to milliseconds
+
+        this.rewardInterval = config.getInt("rewards.interval", 300) * 1000L; // Convert to milliseconds
+        this.dropIfFull = config.getBoolean("rewards.drop-if-full", true);
+        this.tierPriority = Collections.unmodifiableList(config.getStringList("rewards.tier-priority"));
+        this.soundEnabled = config.getBoolean("rewards.sound.enabled", true);
+        this.soundType = config.getString("rewards.sound.type", "ENTITY_PLAYER_LEVELUP");
+        this.soundVolume = (float) config.getDouble("rewards.sound.volume", 1.0);
+        this.soundPitch = (float) config.getDouble("rewards.sound.pitch", 1.0);
+
+        this.titleEnabled = config.getBoolean("visuals.title.enabled", true);
+        this.titleFadeIn = config.getInt("visuals.title.fade-in", 10);
+        this.titleStay = config.getInt("visuals.title.stay", 60);
+        this.titleFadeOut = config.getInt("visuals.title.fade-out", 20);
+        this.actionBarEnabled = config.getBoolean("visuals.actionbar.enabled", true);
+        this.actionBarUpdateInterval = config.getInt("visuals.actionbar.update-interval", 20);
+        this.particlesEnabled = config.getBoolean("visuals.particles.enabled", true);
+        this.particleType = config.getString("visuals.particles.type", "HAPPY_VILLAGER");
+        this.particleCount = config.getInt("visuals.particles.count", 20);
+        this.particleSpread = config.getDouble("visuals.particles.spread", 1.0);
+
+        this.rewardSound = soundEnabled ? resolveSound(logger) : null;
+        this.rewardParticle = particlesEnabled ? resolveParticle(logger) : null;
+        this.titleTimes = Title.Times.times(
+            Duration.ofMillis(titleFadeIn * 50L),
+            Duration.ofMillis(titleStay * 50L),
+            Duration.ofMillis(titleFadeOut * 50L)
+        );
+    }
+
+    private Sound resolveSound(Logger logger) {
+        org.bukkit.Sound sound = lookupSound(soundType);
+        if (sound == null) {
+            logger.warning("Unknown sound type: " + soundType + ", reward sound disabled");
+            return null;
+        }
+        return Sound.sound(sound, Sound.Source.PLAYER, soundVolume, soundPitch);
+    }
+
+    /**
+     * Find a sound in the server's registry
+     * @param name A namespaced key (e.g. "minecraft:entity.player.levelup") or a legacy
+     *             constant name (e.g. "ENTITY_PLAYER_LEVELUP")
+     * @return The sound, or null if the server has no such sound
+     */
+    private static org.bukkit.Sound lookupSound(String name) {
+        if (name.contains(":") || name.contains(".")) {
+            NamespacedKey key = NamespacedKey.fromString(name.toLowerCase());
+            return key != null ? Registry.SOUNDS.get(key) : null;
+        }
+
+        // Legacy names flatten '.' to '_', which is ambiguous when a key contains '_' itself
+        for (org.bukkit.Sound sound : Registry.SOUNDS) {
+            if (sound.key().value().replace('.', '_').equalsIgnoreCase(name)) {
+                return sound;
+            }
+        }
+        return null;
+    }
+
+    private Particle resolveParticle(Logger logger) {
+        String name = particleType.toUpperCase();
+        Particle particle;
+        try {
+            particle = Particle.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            // Pre-1.20.5 name used by older configs
+            if (!name.equals("VILLAGER_HAPPY")) {
+                logger.warning("Invalid particle type: " + particleType + ", reward particles disabled");
+                return null;
+            }
+            particle = Particle.HAPPY_VILLAGER;
+        }
+
+        // Particles such as DUST need options that the config cannot supply
+        if (particle.getDataType() != Void.class) {
+            logger.warning("Particle type " + particleType + " requires extra data, reward particles disabled");
+            return null;
+        }
+        return particle;
+    }
+
+    public String getRegionName() {
+        return regionName;
+    }
+
+    public int getRegionCheckInterval() {
+        return regionCheckInterval;
+    }
+
+    public boolean isPersistData() {
+        return persistData;
+    }
+
+    public int getSaveInterval() {
+        return saveInterval;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    public String getDatabaseType() {
+        return databaseType;
+    }
+
+    public String getSqliteFile() {
+        return sqliteFile;
+    }
+
+    public int getSqlitePoolSize() {
+        return sqlitePoolSize;
+    }
+
+    public boolean isAsyncRegionChecks() {
+        return asyncRegionChecks;
+    }
+
+    public boolean isRegionScannerEnabled() {
+        return regionScannerEnabled;
+    }
+
+    public int getPlayersPerTick() {
+        return playersPerTick;
+    }
+
+    public int getRegionCacheDuration() {
+        return regionCacheDuration;
+    }
+
+    public int getRegionRefreshInterval() {
+        return regionRefreshInterval;
+    }
+
+    public int getRecentPlayerCacheSize() {
+        return recentPlayerCacheSize;
+    }
+
+    public long getRecentPlayerTtl() {
+        return recentPlayerTtl;
+    }
+
+    public long getRewardInterval() {
+        return rewardInterval;
+    }
+
+    public boolean isDropIfFull() {
+        return dropIfFull;
+    }
+
+    public List<String> getTierPriority() {
+        return tierPriority;
+    }
+
+    public boolean isSoundEnabled() {
+        return soundEnabled;
+    }
+
+    public String getSoundType() {
+        return soundType;
+    }
+
+    public float getSoundVolume() {
+        return soundVolume;
+    }
+
+    public float getSoundPitch() {
+        return soundPitch;
+    }
+
+    public boolean isTitleEnabled() {
+        return titleEnabled;
+    }
+
+    public int getTitleFadeIn() {
+        return titleFadeIn;
+    }
+
+    public int getTitleStay() {
+        return titleStay;
+    }
+
+    public int getTitleFadeOut() {
+        return titleFadeOut;
+    }
+
+    public boolean isActionBarEnabled() {
+        return actionBarEnabled;
+    }
+
+    public int getActionBarUpdateInterval() {
+        return actionBarUpdateInterval;
+    }
+
+    public boolean isParticlesEnabled() {
+        return particlesEnabled;
+    }
+
+    public String getParticleType() {
+        return particleType;
+    }
+
+    public int getParticleCount() {
+        return particleCount;
+    }
+
+    public double getParticleSpread() {
+        return particleSpread;
+    }
+
+    public Sound getRewardSound() {
+        return rewardSound;
+    }
+
+    public Particle getRewardParticle() {
+        return rewardParticle;
+    }
+
+    public Title.Times getTitleTimes() {
+        return titleTimes;
+    }
+}
@@ -2,7 +2,9 @@ package dev.alone.aFKZone.data;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents a player's AFK data and statistics
@@ -15,11 +17,21 @@ public class AFKPlayer {
     private long totalAFKTime;
     private long lastRewardTime;
     private boolean inRegion;
+    private String zoneId;
+    private volatile long rewardDeadline;
+    private volatile String rewardTier;
+    private volatile UUID lastWorldId;
+    private volatile int lastChunkX;
+    private volatile int lastChunkZ;
     private boolean rewardsDisabled;
     private int totalRewards;
     private String lastRewardName;
     private final Map<String, Integer> rewardsByType;
 
+    // Bumped on every change to persisted fields; savedVersion is the last flushed version
+    private final AtomicLong version;
+    private volatile long savedVersion;
+
     /**
      * Create a new AFKPlayer
      * @param uuid The player's UUID
@@ -34,6 +46,8 @@ public class AFKPlayer {
         this.totalRewards = 0;
         this.lastRewardName = "None";
         this.rewardsByType = new HashMap<>();
+        this.version = new AtomicLong();
+        this.savedVersion = 0;
     }
 
     /**
@@ -54,10 +68,15 @@ public class AFKPlayer {
 
     /**
      * Set the player's name
+     * Only a changed name marks the player dirty, since every join sets it
      * @param name Name
      */
     public void setName(String name) {
+        if (Objects.equals(this.name, name)) {
+            return;
+        }
         this.name = name;
+        markDirty();
     }
 
     /**
@@ -90,6 +109,7 @@ public class AFKPlayer {
      */
     public void setTotalAFKTime(long totalAFKTime) {
         this.totalAFKTime = totalAFKTime;
+        markDirty();
     }
 
     /**
@@ -106,6 +126,7 @@ public class AFKPlayer {
      */
     public void setLastRewardTime(long lastRewardTime) {
         this.lastRewardTime = lastRewardTime;
+        markDirty();
     }
 
     /**
@@ -124,6 +145,84 @@ public class AFKPlayer {
         this.inRegion = inRegion;
     }
 
+    /**
+     * Get the AFK zone the player is currently in
+     * @return Zone ID, or null if not in a zone
+     */
+    public String getZoneId() {
+        return zoneId;
+    }
+
+    /**
+     * Get the deadline of the currently scheduled reward
+     * @return Deadline (epoch millis), or 0 if none is scheduled
+     */
+    public long getRewardDeadline() {
+        return rewardDeadline;
+    }
+
+    /**
+     * Set the deadline of the currently scheduled reward
+     * Older queue entries with a different deadline are ignored
+     * @param rewardDeadline Deadline (epoch millis), or 0 to cancel
+     */
+    public void setRewardDeadline(long rewardDeadline) {
+        this.rewardDeadline = rewardDeadline;
+    }
+
+    /**
+     * Get the cached reward tier (pool name resolved from permissions)
+     * @return Tier, or null if not resolved yet
+     */
+    public String getRewardTier() {
+        return rewardTier;
+    }
+
+    /**
+     * Set the cached reward tier
+     * @param rewardTier Tier (pool name)
+     */
+    public void setRewardTier(String rewardTier) {
+        this.rewardTier = rewardTier;
+    }
+
+    /**
+     * Get the world of the last observed position
+     * @return World UUID, or null if the player has not been observed yet
+     */
+    public UUID getLastWorldId() {
+        return lastWorldId;
+    }
+
+    /**
+     * Get the chunk X of the last observed position
+     * @return Chunk X
+     */
+    public int getLastChunkX() {
+        return lastChunkX;
+    }
+
+    /**
+     * Get the chunk Z of the last observed position
+     * @return Chunk Z
+     */
+    public int getLastChunkZ() {
+        return lastChunkZ;
+    }
+
+    /**
+     * Record the player's position, observed on its owning region thread
+     * Only used to route reward delivery, so a slightly stale value is harmless
+     * @param worldId World UUID
+     * @param chunkX Chunk X
+     * @param chunkZ Chunk Z
+     */
+    public void setLastChunk(UUID worldId, int chunkX, int chunkZ) {
+        this.lastChunkX = chunkX;
+        this.lastChunkZ = chunkZ;
+        this.lastWorldId = worldId;
+    }
+
     /**
      * Check if rewards are disabled for this player
      * @return true if rewards are disabled
@@ -138,6 +237,7 @@ public class AFKPlayer {
      */
     public void setRewardsDisabled(boolean rewardsDisabled) {
         this.rewardsDisabled = rewardsDisabled;
+        markDirty();
     }
 
     /**
@@ -154,6 +254,7 @@ public class AFKPlayer {
      */
     public void setTotalRewards(int totalRewards) {
         this.totalRewards = totalRewards;
+        markDirty();
     }
 
     /**
@@ -161,6 +262,7 @@ public class AFKPlayer {
      */
     public void incrementTotalRewards() {
         this.totalRewards++;
+        markDirty();
     }
 
     /**
@@ -177,6 +279,7 @@ public class AFKPlayer {
      */
     public void setLastRewardName(String lastRewardName) {
         this.lastRewardName = lastRewardName;
+        markDirty();
     }
 
     /**
@@ -193,6 +296,17 @@ public class AFKPlayer {
      */
     public void incrementRewardType(String type) {
         rewardsByType.put(type, rewardsByType.getOrDefault(type, 0) + 1);
+        markDirty();
+    }
+
+    /**
+     * Set the reward count for a specific type (used when loading data)
+     * @param type The reward type
+     * @param count The count
+     */
+    public void setRewardTypeCount(String type, int count) {
+        rewardsByType.put(type, count);
+        markDirty();
     }
 
     /**
@@ -246,19 +360,25 @@ public class AFKPlayer {
         this.totalAFKTime = 0;
         this.lastRewardTime = 0;
         this.inRegion = false;
+        this.zoneId = null;
+        this.rewardDeadline = 0;
+        markDirty();
     }
 
     /**
      * Handle player entering the AFK region
+     * @param zoneId The zone being entered
      */
-    public void enterRegion() {
+    public void enterRegion(String zoneId) {
         if (!inRegion) {
             this.inRegion = true;
+            this.zoneId = zoneId;
             this.timeEntered = System.currentTimeMillis();
 
             // Set last reward time to current time to prevent immediate rewards
             // Player must wait the full interval before receiving first reward
             this.lastRewardTime = System.currentTimeMillis();
+            markDirty();
         }
     }
 
@@ -270,7 +390,45 @@ public class AFKPlayer {
             // Add current session time to total
             this.totalAFKTime += getTimeInRegion();
             this.inRegion = false;
+            this.zoneId = null;
+            this.rewardDeadline = 0;
             this.timeEntered = 0;
+            markDirty();
+        }
+    }
+
+    /**
+     * Record a change to a persisted field
+     */
+    private void markDirty() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Get the current data version, to be passed to {@link #markSaved(long)}
+     * once a snapshot taken at this version has been written
+     * @return Data version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Check if the player changed since the last successful save
+     * @return true if there are unsaved changes
+     */
+    public boolean isDirty() {
+        return version.get() != savedVersion;
+    }
+
+    /**
+     * Mark a version as saved
+     * Changes made while the save was running keep the player dirty
+     * @param savedVersion The version captured before the save
+     */
+    public void markSaved(long savedVersion) {
+        if (savedVersion > this.savedVersion) {
+            this.savedVersion = savedVersion;
         }
     }
 }
@@ -0,0 +1,55 @@
+package dev.alone.aFKZone.data;
+
+import java.util.UUID;
+
+/**
+ * Immutable leaderboard totals for one player, online or offline
+ * Much smaller than an AFKPlayer, so one can be kept for every stored player
+ */
+public final class PlayerSummary {
+
+    private final UUID uuid;
+    private final String name;
+    private final int totalRewards;
+    private final long totalAFKTime;
+
+    /**
+     * Create a new PlayerSummary
+     * @param uuid The player's UUID
+     * @param name The player's name
+     * @param totalRewards Total rewards received
+     * @param totalAFKTime Total AFK time in milliseconds
+     */
+    public PlayerSummary(UUID uuid, String name, int totalRewards, long totalAFKTime) {
+        this.uuid = uuid;
+        this.name = name != null ? name : "Unknown";
+        this.totalRewards = totalRewards;
+        this.totalAFKTime = totalAFKTime;
+    }
+
+    /**
+     * Snapshot the totals of an AFKPlayer
+     * @param afkPlayer The AFKPlayer
+     * @return The summary
+     */
+    public static PlayerSummary of(AFKPlayer afkPlayer) {
+        return new PlayerSummary(afkPlayer.getUuid(), afkPlayer.getName(),
+            afkPlayer.getTotalRewards(), afkPlayer.getTotalAFKTime());
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getTotalRewards() {
+        return totalRewards;
+    }
+
+    public long getTotalAFKTime() {
+        return totalAFKTime;
+    }
+}
@@ -1,8 +1,12 @@
 package dev.alone.aFKZone.data;
 
+import dev.alone.aFKZone.util.ItemBuilder;
+import dev.alone.aFKZone.util.MessageUtil;
+import net.kyori.adventure.text.Component;
 import org.bukkit.Material;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,6 +19,7 @@ public class Reward {
     private final RewardType type;
     private final double chance;
     private String displayName;
+    private Component displayComponent;
 
     // Item reward fields
     private Material material;
@@ -25,6 +30,7 @@ public class Reward {
     private List<EnchantmentData> enchantments;
     private List<ItemFlag> flags;
     private Integer customModelData;
+    private ItemStack itemTemplate;
 
     // Command reward fields
     private List<String> commands;
@@ -76,6 +82,20 @@ public class Reward {
      */
     public void setDisplayName(String displayName) {
         this.displayName = displayName;
+        this.displayComponent = null;
+    }
+
+    /**
+     * Get the display name parsed as a component (parsed once, then cached)
+     * @return Display name component
+     */
+    public Component getDisplayComponent() {
+        Component component = displayComponent;
+        if (component == null) {
+            component = MessageUtil.toComponent(getDisplayName());
+            displayComponent = component;
+        }
+        return component;
     }
 
     // Item reward getters/setters
@@ -144,6 +164,58 @@ public class Reward {
         this.customModelData = customModelData;
     }
 
+    /**
+     * Build the item template from the item fields
+     * Names and lore are parsed once here instead of on every grant
+     */
+    public void compileItem() {
+        if (material == null) {
+            throw new IllegalStateException("Item reward has no material");
+        }
+
+        ItemBuilder builder = new ItemBuilder(material);
+        builder.amount(amount);
+
+        if (itemName != null) {
+            builder.name(itemName);
+        }
+
+        if (lore != null && !lore.isEmpty()) {
+            builder.lore(lore);
+        }
+
+        if (glow) {
+            builder.glow();
+        }
+
+        if (enchantments != null) {
+            for (EnchantmentData enchData : enchantments) {
+                builder.enchant(enchData.getEnchantment(), enchData.getLevel());
+            }
+        }
+
+        if (flags != null && !flags.isEmpty()) {
+            builder.flags(flags.toArray(new ItemFlag[0]));
+        }
+
+        if (customModelData != null) {
+            builder.customModelData(customModelData);
+        }
+
+        this.itemTemplate = builder.build();
+    }
+
+    /**
+     * Create a fresh copy of the item template
+     * @return A new ItemStack the caller may modify
+     */
+    public ItemStack createItem() {
+        if (itemTemplate == null) {
+            compileItem();
+        }
+        return itemTemplate.clone();
+    }
+
     // Command reward getters/setters
 
     public List<String> getCommands() {
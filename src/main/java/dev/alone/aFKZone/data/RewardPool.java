@@ -1,7 +1,11 @@
 package dev.alone.aFKZone.data;
 
+import dev.alone.aFKZone.util.AliasTable;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Represents a pool of rewards for a specific permission tier
@@ -13,6 +17,7 @@ public class RewardPool {
     private final boolean enabled;
     private final List<Reward> rewards;
     private double totalWeight;
+    private AliasTable aliasTable;
 
     /**
      * Create a new RewardPool
@@ -54,10 +59,10 @@ public class RewardPool {
 
     /**
      * Get all rewards in the pool
-     * @return List of rewards
+     * @return Unmodifiable list of rewards
      */
     public List<Reward> getRewards() {
-        return rewards;
+        return Collections.unmodifiableList(rewards);
     }
 
     /**
@@ -77,6 +82,62 @@ public class RewardPool {
         return totalWeight;
     }
 
+    /**
+     * Compile the alias table used for selection
+     * Must be called once after all rewards are added
+     * @return true if at least one reward has a positive weight
+     */
+    public boolean compile() {
+        double[] weights = new double[rewards.size()];
+        boolean anyPositive = false;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = rewards.get(i).getChance();
+            anyPositive |= weights[i] > 0;
+        }
+
+        aliasTable = anyPositive ? new AliasTable(weights) : null;
+        return anyPositive;
+    }
+
+    /**
+     * Select a reward in proportion to its weight in O(1)
+     * @param random The random source
+     * @return The selected reward, or null if the pool is not compiled
+     */
+    public Reward select(Random random) {
+        int index = selectIndex(random);
+        return index >= 0 ? rewards.get(index) : null;
+    }
+
+    /**
+     * Select the index of a reward in proportion to its weight in O(1)
+     * @param random The random source
+     * @return Index into {@link #getRewards()}, or -1 if the pool is not compiled
+     */
+    public int selectIndex(Random random) {
+        AliasTable table = aliasTable;
+        return table != null ? table.sample(random) : -1;
+    }
+
+    /**
+     * Get the exact selection probability of a reward from its weight
+     * @param reward The reward
+     * @return Probability between 0 and 1
+     */
+    public double getProbability(Reward reward) {
+        double positiveWeight = 0;
+        for (Reward entry : rewards) {
+            if (entry.getChance() > 0) {
+                positiveWeight += entry.getChance();
+            }
+        }
+
+        if (positiveWeight <= 0 || reward.getChance() <= 0) {
+            return 0;
+        }
+        return reward.getChance() / positiveWeight;
+    }
+
     /**
      * Check if the pool has any rewards
      * @return true if the pool has rewards
@@ -0,0 +1,116 @@
+package dev.alone.aFKZone.data;
+
+/**
+ * Represents a configured AFK zone and the rewards it hands out
+ * A zone is backed either by a WorldGuard region or by a native shape from config
+ */
+public class Zone {
+
+    private final String id;
+    private final String regionName;
+    private final String worldName;
+    private final ZoneShape shape;
+    private final String poolName;
+    private final long rewardInterval;
+    private final int priority;
+
+    /**
+     * Create a new Zone
+     * @param id The zone identifier
+     * @param regionName The WorldGuard region backing the zone
+     * @param poolName The reward pool, or null for the default pool
+     * @param rewardInterval Reward interval in milliseconds
+     * @param priority Priority where zones overlap (higher wins)
+     */
+    public Zone(String id, String regionName, String poolName, long rewardInterval, int priority) {
+        this(id, regionName, null, null, poolName, rewardInterval, priority);
+    }
+
+    /**
+     * Create a new native Zone (independent of WorldGuard)
+     * @param id The zone identifier
+     * @param worldName The world the shape lives in
+     * @param shape The zone geometry
+     * @param poolName The reward pool, or null for the default pool
+     * @param rewardInterval Reward interval in milliseconds
+     * @param priority Priority where zones overlap (higher wins)
+     */
+    public Zone(String id, String worldName, ZoneShape shape, String poolName, long rewardInterval, int priority) {
+        this(id, null, worldName, shape, poolName, rewardInterval, priority);
+    }
+
+    private Zone(String id, String regionName, String worldName, ZoneShape shape,
+                 String poolName, long rewardInterval, int priority) {
+        this.id = id;
+        this.regionName = regionName;
+        this.worldName = worldName;
+        this.shape = shape;
+        this.poolName = poolName;
+        this.rewardInterval = rewardInterval;
+        this.priority = priority;
+    }
+
+    /**
+     * Get the zone identifier
+     * @return Zone ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Get the WorldGuard region name
+     * @return Region name, or null for native zones
+     */
+    public String getRegionName() {
+        return regionName;
+    }
+
+    /**
+     * Check if this zone is defined natively in config rather than by WorldGuard
+     * @return true if native
+     */
+    public boolean isNative() {
+        return shape != null;
+    }
+
+    /**
+     * Get the world of a native zone
+     * @return World name, or null for WorldGuard zones
+     */
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * Get the shape of a native zone
+     * @return Zone shape, or null for WorldGuard zones
+     */
+    public ZoneShape getShape() {
+        return shape;
+    }
+
+    /**
+     * Get the reward pool name
+     * @return Pool name, or null for the default pool
+     */
+    public String getPoolName() {
+        return poolName;
+    }
+
+    /**
+     * Get the reward interval
+     * @return Reward interval in milliseconds
+     */
+    public long getRewardInterval() {
+        return rewardInterval;
+    }
+
+    /**
+     * Get the zone priority
+     * @return Priority (higher wins where zones overlap)
+     */
+    public int getPriority() {
+        return priority;
+    }
+}
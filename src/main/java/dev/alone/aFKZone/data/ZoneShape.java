@@ -0,0 +1,266 @@
+package dev.alone.aFKZone.data;
+
+import dev.alone.aFKZone.util.ChunkClassMap;
+
+/**
+ * Immutable snapshot of an AFK zone's geometry (world-agnostic)
+ * Membership tests are plain integer comparisons and never allocate
+ */
+public final class ZoneShape {
+
+    // Polygons spanning more chunks than this are tested precisely everywhere
+    private static final int MAX_CLASSIFIED_CHUNKS = 4096;
+
+    private final Type type;
+    private final String regionId;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+    private final int[] pointsX;
+    private final int[] pointsZ;
+    private final ChunkClassMap chunkClasses;
+
+    private ZoneShape(Type type, String regionId,
+                      int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+                      int[] pointsX, int[] pointsZ) {
+        this.type = type;
+        this.regionId = regionId;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.pointsX = pointsX;
+        this.pointsZ = pointsZ;
+        this.chunkClasses = type == Type.POLYGON ? classifyChunks() : null;
+    }
+
+    /**
+     * Create a cuboid shape (bounds are inclusive block coordinates)
+     * @param regionId The region identifier
+     * @return The cuboid shape
+     */
+    public static ZoneShape cuboid(String regionId,
+                                   int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return new ZoneShape(Type.CUBOID, regionId,
+            Math.min(minX, maxX), Math.min(minY, maxY), Math.min(minZ, maxZ),
+            Math.max(minX, maxX), Math.max(minY, maxY), Math.max(minZ, maxZ),
+            null, null);
+    }
+
+    /**
+     * Create a polygonal shape extruded between two heights
+     * @param regionId The region identifier
+     * @param pointsX X coordinates of the polygon vertices
+     * @param pointsZ Z coordinates of the polygon vertices
+     * @param minY Minimum height (inclusive)
+     * @param maxY Maximum height (inclusive)
+     * @return The polygon shape
+     */
+    public static ZoneShape polygon(String regionId, int[] pointsX, int[] pointsZ, int minY, int maxY) {
+        if (pointsX.length != pointsZ.length || pointsX.length < 3) {
+            throw new IllegalArgumentException("A polygon needs at least 3 points");
+        }
+
+        int minX = Integer.MAX_VALUE;
+        int minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxZ = Integer.MIN_VALUE;
+        for (int i = 0; i < pointsX.length; i++) {
+            minX = Math.min(minX, pointsX[i]);
+            minZ = Math.min(minZ, pointsZ[i]);
+            maxX = Math.max(maxX, pointsX[i]);
+            maxZ = Math.max(maxZ, pointsZ[i]);
+        }
+
+        return new ZoneShape(Type.POLYGON, regionId,
+            minX, Math.min(minY, maxY), minZ, maxX, Math.max(minY, maxY), maxZ,
+            pointsX.clone(), pointsZ.clone());
+    }
+
+    /**
+     * Check if a block position is inside this shape
+     * @param x Block X
+     * @param y Block Y
+     * @param z Block Z
+     * @return true if inside
+     */
+    public boolean contains(int x, int y, int z) {
+        if (y < minY || y > maxY) {
+            return false;
+        }
+        return containsColumn(x, z);
+    }
+
+    /**
+     * Check if a block column is inside this shape, ignoring height
+     * @param x Block X
+     * @param z Block Z
+     * @return true if inside
+     */
+    public boolean containsColumn(int x, int z) {
+        if (x < minX || x > maxX || z < minZ || z > maxZ) {
+            return false;
+        }
+        if (type == Type.CUBOID) {
+            return true;
+        }
+
+        if (chunkClasses != null) {
+            byte chunkClass = chunkClasses.get(ChunkClassMap.key(x >> 4, z >> 4));
+            if (chunkClass != ChunkClassMap.BOUNDARY) {
+                return chunkClass == ChunkClassMap.INSIDE;
+            }
+        }
+
+        return polygonContains(x, z);
+    }
+
+    /**
+     * Classify every chunk in the bounding box as fully inside, fully outside
+     * or boundary, so only boundary chunks need the point-in-polygon test
+     * Cuboids skip this: their bounds check is already exact
+     * @return The classification map, or null if the polygon is too large
+     */
+    private ChunkClassMap classifyChunks() {
+        int minChunkX = minX >> 4;
+        int minChunkZ = minZ >> 4;
+        int maxChunkX = maxX >> 4;
+        int maxChunkZ = maxZ >> 4;
+
+        long chunkCount = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+        if (chunkCount > MAX_CLASSIFIED_CHUNKS) {
+            return null;
+        }
+
+        ChunkClassMap map = new ChunkClassMap((int) chunkCount);
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                map.put(ChunkClassMap.key(chunkX, chunkZ), classifyChunk(chunkX, chunkZ));
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Classify a single chunk by testing each of its block columns
+     * @param chunkX Chunk X
+     * @param chunkZ Chunk Z
+     * @return The chunk classification
+     */
+    private byte classifyChunk(int chunkX, int chunkZ) {
+        boolean anyInside = false;
+        boolean anyOutside = false;
+
+        for (int x = chunkX << 4; x < (chunkX << 4) + 16; x++) {
+            for (int z = chunkZ << 4; z < (chunkZ << 4) + 16; z++) {
+                boolean inside = x >= minX && x <= maxX && z >= minZ && z <= maxZ && polygonContains(x, z);
+                if (inside) {
+                    anyInside = true;
+                } else {
+                    anyOutside = true;
+                }
+
+                if (anyInside && anyOutside) {
+                    return ChunkClassMap.BOUNDARY;
+                }
+            }
+        }
+
+        return anyInside ? ChunkClassMap.INSIDE : ChunkClassMap.OUTSIDE;
+    }
+
+    /**
+     * Point-in-polygon test matching WorldGuard's ProtectedPolygonalRegion
+     * (vertices and edges count as inside)
+     */
+    private boolean polygonContains(int targetX, int targetZ) {
+        boolean inside = false;
+        int count = pointsX.length;
+        int xOld = pointsX[count - 1];
+        int zOld = pointsZ[count - 1];
+
+        for (int i = 0; i < count; i++) {
+            int xNew = pointsX[i];
+            int zNew = pointsZ[i];
+
+            if (xNew == targetX && zNew == targetZ) {
+                return true;
+            }
+
+            int x1, z1, x2, z2;
+            if (xNew > xOld) {
+                x1 = xOld;
+                z1 = zOld;
+                x2 = xNew;
+                z2 = zNew;
+            } else {
+                x1 = xNew;
+                z1 = zNew;
+                x2 = xOld;
+                z2 = zOld;
+            }
+
+            if (x1 <= targetX && targetX <= x2) {
+                long crossProduct = ((long) targetZ - (long) z1) * (long) (x2 - x1)
+                    - ((long) z2 - (long) z1) * (long) (targetX - x1);
+                if (crossProduct == 0) {
+                    if ((z1 <= targetZ) == (targetZ <= z2)) {
+                        return true; // On an edge
+                    }
+                } else if (crossProduct < 0 && x1 != targetX) {
+                    inside = !inside;
+                }
+            }
+
+            xOld = xNew;
+            zOld = zNew;
+        }
+
+        return inside;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getRegionId() {
+        return regionId;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+
+    /**
+     * Shape type enum
+     */
+    public enum Type {
+        CUBOID,
+        POLYGON
+    }
+}
@@ -2,6 +2,7 @@ package dev.alone.aFKZone.gui;
 
 import dev.alone.aFKZone.AFKZone;
 import dev.alone.aFKZone.data.AFKPlayer;
+import dev.alone.aFKZone.data.PlayerSummary;
 import dev.alone.aFKZone.manager.LeaderboardManager;
 import dev.alone.aFKZone.util.ItemBuilder;
 import dev.alone.aFKZone.util.MessageUtil;
@@ -63,14 +64,13 @@ public class LeaderboardGUI implements Listener, InventoryHolder {
         int maxPlayers = plugin.getConfigManager().getLeaderboardGui().getInt("gui.max-players", 45);
 
         // Get top players
-        List<AFKPlayer> topPlayers = sortType == LeaderboardManager.SortType.REWARDS ?
+        List<PlayerSummary> topPlayers = sortType == LeaderboardManager.SortType.REWARDS ?
             plugin.getLeaderboardManager().getTopByRewards(maxPlayers) :
             plugin.getLeaderboardManager().getTopByTime(maxPlayers);
 
         // Fill leaderboard slots
         for (int i = 0; i < topPlayers.size() && i < maxPlayers; i++) {
-            AFKPlayer afkPlayer = topPlayers.get(i);
-            this.inventory.setItem(i, createPlayerHead(afkPlayer, i + 1));
+            this.inventory.setItem(i, createPlayerHead(topPlayers.get(i), i + 1));
         }
 
         // Add control buttons from config
@@ -103,17 +103,17 @@ public class LeaderboardGUI implements Listener, InventoryHolder {
 
     /**
      * Create a player head item for the leaderboard
-     * @param afkPlayer The AFKPlayer data
+     * @param summary The player's leaderboard totals
      * @param rank The player's rank
      * @return ItemStack with player head
      */
-    private ItemStack createPlayerHead(AFKPlayer afkPlayer, int rank) {
+    private ItemStack createPlayerHead(PlayerSummary summary, int rank) {
         ItemStack skull = new ItemStack(Material.PLAYER_HEAD);
         SkullMeta meta = (SkullMeta) skull.getItemMeta();
 
         if (meta != null) {
             // Set player head
-            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(afkPlayer.getUuid());
+            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(summary.getUuid());
             meta.setOwningPlayer(offlinePlayer);
 
             // Get rank color from config
@@ -125,22 +125,24 @@ public class LeaderboardGUI implements Listener, InventoryHolder {
             nameFormat = nameFormat
                 .replace("%rank_color%", rankColor)
                 .replace("%rank%", String.valueOf(rank))
-                .replace("%player%", afkPlayer.getName());
+                .replace("%player%", summary.getName());
             meta.setDisplayName(MessageUtil.colorize(nameFormat));
 
             // Set lore from config
             List<String> loreTemplate = plugin.getConfigManager().getLeaderboardGui()
                 .getStringList("player-head.lore");
 
-            String statusMessage = afkPlayer.isInRegion() ?
+            // Offline players are never in a pool
+            AFKPlayer afkPlayer = plugin.getAFKManager().getAFKPlayer(summary.getUuid());
+            String statusMessage = afkPlayer != null && afkPlayer.isInRegion() ?
                 plugin.getConfigManager().getLeaderboardGui().getString("player-head.status.in-pool") :
                 plugin.getConfigManager().getLeaderboardGui().getString("player-head.status.not-in-pool");
 
             List<String> lore = new ArrayList<>();
             for (String line : loreTemplate) {
                 line = line
-                    .replace("%rewards%", String.valueOf(afkPlayer.getTotalRewards()))
-                    .replace("%time%", MessageUtil.formatTime(afkPlayer.getTotalAFKTime()))
+                    .replace("%rewards%", String.valueOf(summary.getTotalRewards()))
+                    .replace("%time%", MessageUtil.formatTime(summary.getTotalAFKTime()))
                     .replace("%status%", statusMessage);
                 lore.add(MessageUtil.colorize(line));
             }
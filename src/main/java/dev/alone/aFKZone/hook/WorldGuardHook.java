@@ -0,0 +1,114 @@
+package dev.alone.aFKZone.hook;
+
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector2;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldguard.WorldGuard;
+import com.sk89q.worldguard.protection.ApplicableRegionSet;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedPolygonalRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import com.sk89q.worldguard.protection.regions.RegionContainer;
+import dev.alone.aFKZone.data.ZoneShape;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Isolates all WorldGuard API access so the plugin can run without WorldGuard
+ * Only instantiate this class when the WorldGuard plugin is present
+ */
+public class WorldGuardHook {
+
+    private final RegionContainer container;
+
+    /**
+     * Create a new WorldGuardHook
+     */
+    public WorldGuardHook() {
+        this.container = WorldGuard.getInstance().getPlatform().getRegionContainer();
+    }
+
+    /**
+     * Get an opaque token identifying the current definition of a region
+     * WorldGuard replaces the region object whenever it is redefined or reloaded,
+     * so comparing tokens by identity detects changes
+     * @param world The world
+     * @param regionName The region name
+     * @return The token, or null if the region does not exist in that world
+     */
+    public Object getRegionToken(World world, String regionName) {
+        return findRegion(world, regionName);
+    }
+
+    /**
+     * Convert a WorldGuard region into an immutable shape
+     * @param world The world
+     * @param regionName The region name
+     * @return The shape, or null if the region is missing or cannot be snapshotted
+     */
+    public ZoneShape createShape(World world, String regionName) {
+        ProtectedRegion region = findRegion(world, regionName);
+
+        if (region instanceof ProtectedCuboidRegion) {
+            BlockVector3 min = region.getMinimumPoint();
+            BlockVector3 max = region.getMaximumPoint();
+            return ZoneShape.cuboid(region.getId(),
+                min.getBlockX(), min.getBlockY(), min.getBlockZ(),
+                max.getBlockX(), max.getBlockY(), max.getBlockZ());
+        }
+
+        if (region instanceof ProtectedPolygonalRegion) {
+            List<BlockVector2> points = region.getPoints();
+            int[] pointsX = new int[points.size()];
+            int[] pointsZ = new int[points.size()];
+            for (int i = 0; i < points.size(); i++) {
+                pointsX[i] = points.get(i).getBlockX();
+                pointsZ[i] = points.get(i).getBlockZ();
+            }
+            return ZoneShape.polygon(region.getId(), pointsX, pointsZ,
+                region.getMinimumPoint().getBlockY(), region.getMaximumPoint().getBlockY());
+        }
+
+        return null;
+    }
+
+    /**
+     * Query the IDs of all regions applying at a location
+     * @param loc The location
+     * @return Region IDs
+     */
+    public List<String> getApplicableRegionIds(Location loc) {
+        com.sk89q.worldguard.protection.managers.RegionManager regionManager =
+            container.get(BukkitAdapter.adapt(loc.getWorld()));
+
+        if (regionManager == null) {
+            return Collections.emptyList();
+        }
+
+        ApplicableRegionSet set = regionManager.getApplicableRegions(BukkitAdapter.asBlockVector(loc));
+        List<String> ids = new ArrayList<>(set.size());
+        for (ProtectedRegion region : set) {
+            ids.add(region.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Look up a region in a world
+     * @param world The world
+     * @param regionName The region name
+     * @return The region, or null if it does not exist in that world
+     */
+    private ProtectedRegion findRegion(World world, String regionName) {
+        com.sk89q.worldguard.protection.managers.RegionManager regionManager =
+            container.get(BukkitAdapter.adapt(world));
+        if (regionManager == null) {
+            return null;
+        }
+        return regionManager.getRegion(regionName);
+    }
+}
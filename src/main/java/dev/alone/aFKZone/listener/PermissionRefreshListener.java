@@ -0,0 +1,44 @@
+package dev.alone.aFKZone.listener;
+
+import dev.alone.aFKZone.AFKZone;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+
+/**
+ * Refreshes cached reward tiers when a player's permissions may have changed
+ */
+public class PermissionRefreshListener implements Listener {
+
+    private final AFKZone plugin;
+
+    /**
+     * Create a new PermissionRefreshListener
+     * @param plugin The plugin instance
+     */
+    public PermissionRefreshListener(AFKZone plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Handle world change (permissions may be per-world)
+     * @param event The PlayerChangedWorldEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        plugin.getRewardManager().refreshTier(event.getPlayer());
+    }
+
+    /**
+     * Handle command tree resend
+     * Bukkit has no permission-change event, but the server and permission
+     * plugins resend the command tree whenever a player's permissions change
+     * @param event The PlayerCommandSendEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCommandSend(PlayerCommandSendEvent event) {
+        plugin.getRewardManager().refreshTier(event.getPlayer());
+    }
+}
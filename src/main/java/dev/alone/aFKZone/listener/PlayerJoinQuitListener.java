@@ -5,7 +5,9 @@ import dev.alone.aFKZone.data.AFKPlayer;
 import dev.alone.aFKZone.util.FoliaScheduler;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
@@ -24,75 +26,121 @@ public class PlayerJoinQuitListener implements Listener {
         this.plugin = plugin;
     }
 
+    /**
+     * Prefetch player data while the login is still being processed
+     * Runs after other plugins have decided, so denied logins are not loaded
+     * @param event The AsyncPlayerPreLoginEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        if (plugin.getDataManager() == null || !plugin.getConfigManager().isPersistData()) {
+            return;
+        }
+
+        // A resident offline player is newer than storage and is reclaimed on join
+        if (plugin.getAFKManager().isRecentlyQuit(event.getUniqueId())) {
+            return;
+        }
+
+        plugin.getDataManager().prefetch(event.getUniqueId());
+    }
+
     /**
      * Handle player join
-     * Uses AsyncScheduler for data loading and EntityScheduler for player updates
+     * Installs reclaimed or prefetched data immediately; otherwise uses AsyncScheduler
+     * for data loading and EntityScheduler for player updates
      * @param event The PlayerJoinEvent
      */
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
+        long joinedAt = System.nanoTime();
 
-        // Load or create player data
-        if (plugin.getDataManager() != null) {
-            FoliaScheduler.runAsync(plugin, () -> {
-                AFKPlayer loadedPlayer = plugin.getDataManager().loadPlayerData(player.getUniqueId());
+        // Fast reconnect: the resident or pending state is newer than storage
+        AFKPlayer recent = plugin.getAFKManager().reclaimRecentlyQuit(player.getUniqueId());
+        if (recent != null) {
+            if (plugin.getDataManager() != null) {
+                plugin.getDataManager().takePrefetched(player.getUniqueId());
+            }
+            installPlayer(player, recent, joinedAt);
+            return;
+        }
 
-                FoliaScheduler.runEntity(plugin, player, () -> {
-                    AFKPlayer afkPlayer;
-                    if (loadedPlayer == null) {
-                        afkPlayer = new AFKPlayer(player.getUniqueId());
-                    } else {
-                        afkPlayer = loadedPlayer;
-                    }
+        if (plugin.getDataManager() == null) {
+            // If data manager not initialized, create new player
+            installPlayer(player, new AFKPlayer(player.getUniqueId()), joinedAt);
+            return;
+        }
 
-                    afkPlayer.setName(player.getName());
+        // Loaded during pre-login
+        AFKPlayer staged = plugin.getDataManager().takePrefetched(player.getUniqueId());
+        if (staged != null) {
+            plugin.getAFKManager().recordStoredJoin(true);
+            installPlayer(player, staged, joinedAt);
+            return;
+        }
 
-                    plugin.getAFKManager().addPlayer(afkPlayer);
+        // Not prefetched (or expired): load now, holding off region checks until ready
+        plugin.getAFKManager().recordStoredJoin(false);
+        plugin.getAFKManager().markLoading(player.getUniqueId());
+        FoliaScheduler.runAsync(plugin, () -> {
+            AFKPlayer loadedPlayer = plugin.getDataManager().loadPlayerData(player.getUniqueId());
 
-                    if (plugin.getConfigManager().isDebug()) {
-                        plugin.getLogger().info("Loaded AFK data for " + player.getName());
-                    }
-                });
+            FoliaScheduler.runEntity(plugin, player, () -> {
+                installPlayer(player, loadedPlayer != null ? loadedPlayer : new AFKPlayer(player.getUniqueId()), joinedAt);
             });
-        } else {
-            // If data manager not initialized, create new player
-            AFKPlayer afkPlayer = new AFKPlayer(player.getUniqueId());
-            afkPlayer.setName(player.getName());
-            plugin.getAFKManager().addPlayer(afkPlayer);
+        });
+    }
+
+    /**
+     * Start tracking a joined player
+     * @param player The player
+     * @param afkPlayer The player's AFK data
+     * @param joinedAt System.nanoTime() when the player joined
+     */
+    private void installPlayer(Player player, AFKPlayer afkPlayer, long joinedAt) {
+        afkPlayer.setName(player.getName());
+
+        plugin.getAFKManager().addPlayer(afkPlayer);
+        plugin.getAFKManager().clearLoading(player.getUniqueId());
+        plugin.getAFKManager().recordJoinReady(joinedAt);
+        plugin.getRewardManager().refreshTier(player);
+
+        if (plugin.getConfigManager().isDebug()) {
+            plugin.getLogger().info("Loaded AFK data for " + player.getName());
         }
     }
 
     /**
      * Handle player quit
-     * Uses AsyncScheduler for data saving
+     * Queues data saving on the DataManager writer and marks the player offline
      * @param event The PlayerQuitEvent
      */
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
+        plugin.getRegionManager().cancelPendingCheck(player.getUniqueId());
+        plugin.getAFKManager().clearLoading(player.getUniqueId());
+
         AFKPlayer afkPlayer = plugin.getAFKManager().getAFKPlayer(player.getUniqueId());
 
         if (afkPlayer != null) {
             // Exit region if they're in it
             if (afkPlayer.isInRegion()) {
                 afkPlayer.exitRegion();
+                plugin.getLeaderboardManager().update(afkPlayer);
             }
 
-            // Save data asynchronously
+            // Save data through the write-behind queue
             if (plugin.getDataManager() != null && plugin.getConfigManager().isPersistData()) {
-                final AFKPlayer finalAfkPlayer = afkPlayer;
-                FoliaScheduler.runAsync(plugin, () -> {
-                    plugin.getDataManager().savePlayerData(finalAfkPlayer);
-
-                    if (plugin.getConfigManager().isDebug()) {
-                        plugin.getLogger().info("Saved AFK data for " + player.getName());
-                    }
-                });
-            }
-
-            // Remove from memory if persistence is disabled
-            if (!plugin.getConfigManager().isPersistData()) {
+                plugin.getDataManager().queueSave(afkPlayer);
+                // Kept briefly as recently quit, evicted once the save completes
+                plugin.getAFKManager().markOffline(afkPlayer);
+            } else {
+                // Remove from memory if persistence is disabled
                 plugin.getAFKManager().removePlayer(player.getUniqueId());
             }
         }
@@ -1,7 +1,7 @@
 package dev.alone.aFKZone.listener;
 
 import dev.alone.aFKZone.AFKZone;
-import dev.alone.aFKZone.util.FoliaScheduler;
+import dev.alone.aFKZone.data.Zone;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -25,11 +25,16 @@ public class PlayerMoveListener implements Listener {
 
     /**
      * Handle player movement
-     * Uses AsyncScheduler for region checks and EntityScheduler for player updates
+     * Async checks are coalesced per player by the RegionManager
      * @param event The PlayerMoveEvent
      */
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
+        // The region scanner handles detection on its own schedule
+        if (plugin.getConfigManager().isRegionScannerEnabled()) {
+            return;
+        }
+
         // Only check if player moved to a different block
         if (event.getFrom().getBlockX() == event.getTo().getBlockX() &&
             event.getFrom().getBlockY() == event.getTo().getBlockY() &&
@@ -40,19 +45,12 @@ public class PlayerMoveListener implements Listener {
         Player player = event.getPlayer();
 
         // Check region status asynchronously if enabled
-        if (plugin.getConfigManager().getConfig().getBoolean("performance.async-region-checks", true)) {
-            FoliaScheduler.runAsync(plugin, () -> {
-                boolean inRegion = plugin.getRegionManager().isInAFKRegion(player);
-
-                // Update status on the player's region thread
-                FoliaScheduler.runEntity(plugin, player, () -> {
-                    plugin.getAFKManager().updateRegionStatus(player, inRegion);
-                });
-            });
+        if (plugin.getConfigManager().isAsyncRegionChecks()) {
+            plugin.getRegionManager().requestCheck(player, event.getTo());
         } else {
             // Sync check on player's region thread
-            boolean inRegion = plugin.getRegionManager().isInAFKRegion(player);
-            plugin.getAFKManager().updateRegionStatus(player, inRegion);
+            Zone zone = plugin.getRegionManager().getZoneAt(event.getTo());
+            plugin.getAFKManager().updateRegionStatus(player, zone);
         }
     }
 }
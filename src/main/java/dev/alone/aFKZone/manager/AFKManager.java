@@ -2,22 +2,41 @@ package dev.alone.aFKZone.manager;
 
 import dev.alone.aFKZone.AFKZone;
 import dev.alone.aFKZone.data.AFKPlayer;
+import dev.alone.aFKZone.data.Zone;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.title.Title;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
-import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Manages AFK player data and tracking
+ * Online players are always resident; players who quit stay in a bounded
+ * recently-quit list and are dropped once their data has been saved
  */
 public class AFKManager {
 
     private final AFKZone plugin;
     private final Map<UUID, AFKPlayer> afkPlayers;
 
+    // Offline players still in afkPlayers, least recently quit first; guards resident changes
+    private final LinkedHashMap<UUID, QuitEntry> recentlyQuit;
+
+    // Players whose data is being loaded after joining; region checks skip them
+    private final Set<UUID> loading;
+
+    private final LongAdder reconnectHits;
+    private final LongAdder reconnectPendingHits;
+    private final LongAdder prefetchHits;
+    private final LongAdder joinLoads;
+    private final LongAdder joinsReady;
+    private final LongAdder totalJoinLatency;
+    private volatile long maxJoinLatency;
+
     /**
      * Create a new AFKManager
      * @param plugin The plugin instance
@@ -25,6 +44,14 @@ public class AFKManager {
     public AFKManager(AFKZone plugin) {
         this.plugin = plugin;
         this.afkPlayers = new ConcurrentHashMap<>();
+        this.recentlyQuit = new LinkedHashMap<>();
+        this.loading = ConcurrentHashMap.newKeySet();
+        this.reconnectHits = new LongAdder();
+        this.reconnectPendingHits = new LongAdder();
+        this.prefetchHits = new LongAdder();
+        this.joinLoads = new LongAdder();
+        this.joinsReady = new LongAdder();
+        this.totalJoinLatency = new LongAdder();
     }
 
     /**
@@ -45,6 +72,7 @@ public class AFKManager {
         return afkPlayers.computeIfAbsent(player.getUniqueId(), uuid -> {
             AFKPlayer afkPlayer = new AFKPlayer(uuid);
             afkPlayer.setName(player.getName());
+            plugin.getLeaderboardManager().update(afkPlayer);
             return afkPlayer;
         });
     }
@@ -54,7 +82,11 @@ public class AFKManager {
      * @param afkPlayer The AFKPlayer to add
      */
     public void addPlayer(AFKPlayer afkPlayer) {
-        afkPlayers.put(afkPlayer.getUuid(), afkPlayer);
+        synchronized (recentlyQuit) {
+            recentlyQuit.remove(afkPlayer.getUuid());
+            afkPlayers.put(afkPlayer.getUuid(), afkPlayer);
+            plugin.getLeaderboardManager().update(afkPlayer);
+        }
     }
 
     /**
@@ -62,7 +94,172 @@ public class AFKManager {
      * @param uuid The player's UUID
      */
     public void removePlayer(UUID uuid) {
-        afkPlayers.remove(uuid);
+        synchronized (recentlyQuit) {
+            recentlyQuit.remove(uuid);
+            afkPlayers.remove(uuid);
+            plugin.getLeaderboardManager().remove(uuid);
+        }
+    }
+
+    /**
+     * Move a player who quit into the recently-quit list
+     * The player stays resident until evicted by {@link #evictFlushed()}
+     * @param afkPlayer The AFKPlayer who quit
+     */
+    public void markOffline(AFKPlayer afkPlayer) {
+        synchronized (recentlyQuit) {
+            if (afkPlayers.get(afkPlayer.getUuid()) != afkPlayer) {
+                return;
+            }
+            recentlyQuit.remove(afkPlayer.getUuid());
+            recentlyQuit.put(afkPlayer.getUuid(), new QuitEntry(afkPlayer, System.currentTimeMillis()));
+        }
+        evictFlushed();
+    }
+
+    /**
+     * Reclaim the latest state of a reconnecting player without touching storage
+     * Checks the recently-quit list first, then the DataManager's pending writes,
+     * both of which are newer than anything on disk
+     * @param uuid The player's UUID
+     * @return The AFKPlayer, or null if it must be loaded from storage
+     */
+    public AFKPlayer reclaimRecentlyQuit(UUID uuid) {
+        synchronized (recentlyQuit) {
+            QuitEntry entry = recentlyQuit.remove(uuid);
+            if (entry != null) {
+                reconnectHits.increment();
+                return entry.getPlayer();
+            }
+        }
+
+        DataManager dataManager = plugin.getDataManager();
+        AFKPlayer pending = dataManager != null ? dataManager.getPendingPlayer(uuid) : null;
+        if (pending != null) {
+            reconnectPendingHits.increment();
+            return pending;
+        }
+
+        return null;
+    }
+
+    /**
+     * Check if a player is in the recently-quit list
+     * @param uuid The player's UUID
+     * @return true if the player's offline state is still resident
+     */
+    public boolean isRecentlyQuit(UUID uuid) {
+        synchronized (recentlyQuit) {
+            return recentlyQuit.containsKey(uuid);
+        }
+    }
+
+    /**
+     * Mark a joined player as waiting for their data to load
+     * @param uuid The player's UUID
+     */
+    public void markLoading(UUID uuid) {
+        loading.add(uuid);
+    }
+
+    /**
+     * Clear a player's loading mark
+     * @param uuid The player's UUID
+     */
+    public void clearLoading(UUID uuid) {
+        loading.remove(uuid);
+    }
+
+    /**
+     * Check if a player's data is still being loaded
+     * @param uuid The player's UUID
+     * @return true if loading
+     */
+    public boolean isLoading(UUID uuid) {
+        return loading.contains(uuid);
+    }
+
+    /**
+     * Record where a joined player's data came from when it was not reclaimed
+     * @param prefetched true if staged at pre-login, false if loaded after joining
+     */
+    public void recordStoredJoin(boolean prefetched) {
+        (prefetched ? prefetchHits : joinLoads).increment();
+    }
+
+    /**
+     * Record a joined player's data becoming ready
+     * @param joinedAt System.nanoTime() when the player joined
+     */
+    public void recordJoinReady(long joinedAt) {
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - joinedAt);
+        joinsReady.increment();
+        totalJoinLatency.add(latency);
+        if (latency > maxJoinLatency) {
+            maxJoinLatency = latency;
+        }
+    }
+
+    /**
+     * Drop offline players that expired or exceed the recently-quit limit
+     * Players with unsaved changes or a queued write are kept until a later
+     * call, so nothing is evicted before it has been flushed
+     * @return Number of players evicted
+     */
+    public int evictFlushed() {
+        int limit = plugin.getConfigManager().getRecentPlayerCacheSize();
+        long expiredBefore = System.currentTimeMillis() - plugin.getConfigManager().getRecentPlayerTtl();
+        DataManager dataManager = plugin.getDataManager();
+        int evicted = 0;
+
+        synchronized (recentlyQuit) {
+            int excess = recentlyQuit.size() - limit;
+            Iterator<QuitEntry> iterator = recentlyQuit.values().iterator();
+            while (iterator.hasNext()) {
+                QuitEntry entry = iterator.next();
+                // Entries are in quit order, so nothing later is expired either
+                if (excess <= 0 && entry.getQuitAt() >= expiredBefore) {
+                    break;
+                }
+
+                AFKPlayer afkPlayer = entry.getPlayer();
+                if (afkPlayer.isDirty() || (dataManager != null && dataManager.isPending(afkPlayer.getUuid()))) {
+                    continue;
+                }
+                iterator.remove();
+                // Its saved totals stay on the leaderboard
+                afkPlayers.remove(afkPlayer.getUuid(), afkPlayer);
+                excess--;
+                evicted++;
+            }
+        }
+
+        if (evicted > 0 && plugin.getConfigManager().isDebug()) {
+            plugin.getLogger().info("Evicted " + evicted + " offline players from memory");
+        }
+        return evicted;
+    }
+
+    /**
+     * Get the number of offline players still resident
+     * @return Recently-quit player count
+     */
+    public int getRecentlyQuitCount() {
+        synchronized (recentlyQuit) {
+            return recentlyQuit.size();
+        }
+    }
+
+    /**
+     * Get join statistics
+     * @return Statistics string
+     */
+    public String getJoinStats() {
+        long ready = joinsReady.sum();
+        long averageLatency = ready > 0 ? totalJoinLatency.sum() / ready : 0;
+        return String.format("Joins: %d resident, %d pending write, %d prefetched, %d loaded on join, ready avg %dms / max %dms",
+            reconnectHits.sum(), reconnectPendingHits.sum(), prefetchHits.sum(), joinLoads.sum(),
+            averageLatency, maxJoinLatency);
     }
 
     /**
@@ -88,51 +285,40 @@ public class AFKManager {
     }
 
     /**
-     * Handle player entering the AFK region
+     * Handle player entering an AFK zone
      * @param player The player
+     * @param zone The zone entered
      */
-    public void handleEnterRegion(Player player) {
+    public void handleEnterRegion(Player player, Zone zone) {
         AFKPlayer afkPlayer = getOrCreateAFKPlayer(player);
 
         if (!afkPlayer.isInRegion()) {
-            afkPlayer.enterRegion();
+            afkPlayer.enterRegion(zone.getId());
+            plugin.getRewardManager().scheduleReward(afkPlayer);
 
             // Send title if enabled
             if (plugin.getConfigManager().isTitleEnabled()) {
-                String titleText = plugin.getConfigManager().getMessages()
-                    .getString("titles.enter-region.title", "<green><bold>AFK POOL</bold></green>");
-                String subtitleText = plugin.getConfigManager().getMessages()
-                    .getString("titles.enter-region.subtitle", "<gray>Stay here to earn rewards!</gray>");
-
-                Component titleComponent = dev.alone.aFKZone.util.MessageUtil.toComponent(titleText);
-                Component subtitleComponent = dev.alone.aFKZone.util.MessageUtil.toComponent(subtitleText);
+                Component titleComponent = plugin.getConfigManager()
+                    .getTemplate("titles.enter-region.title").render(null);
+                Component subtitleComponent = plugin.getConfigManager()
+                    .getTemplate("titles.enter-region.subtitle").render(null);
 
                 Title title = Title.title(
                     titleComponent,
                     subtitleComponent,
-                    Title.Times.times(
-                        Duration.ofMillis(plugin.getConfigManager().getTitleFadeIn() * 50L),
-                        Duration.ofMillis(plugin.getConfigManager().getTitleStay() * 50L),
-                        Duration.ofMillis(plugin.getConfigManager().getTitleFadeOut() * 50L)
-                    )
+                    plugin.getConfigManager().getTitleTimes()
                 );
 
                 player.showTitle(title);
             }
 
             // Send chat message
-            String message = plugin.getConfigManager().getMessages()
-                .getString("messages.enter-region", "%prefix% <green>You entered the AFK Pool! Earn rewards every <yellow>%reward_interval%</yellow>.</green>");
-            String prefix = plugin.getConfigManager().getPrefix();
-            message = message.replace("%prefix%", prefix);
-            message = message.replace("%reward_interval%",
-                dev.alone.aFKZone.util.MessageUtil.formatTime(plugin.getConfigManager().getRewardInterval()));
-
-            Component messageComponent = dev.alone.aFKZone.util.MessageUtil.toComponentWithPlaceholders(player, message);
+            Component messageComponent = plugin.getConfigManager().getTemplate("messages.enter-region")
+                .render(player, dev.alone.aFKZone.util.MessageUtil.formatTime(zone.getRewardInterval()));
             player.sendMessage(messageComponent);
 
             if (plugin.getConfigManager().isDebug()) {
-                plugin.getLogger().info(player.getName() + " entered AFK region");
+                plugin.getLogger().info(player.getName() + " entered AFK zone '" + zone.getId() + "'");
             }
         }
     }
@@ -146,14 +332,10 @@ public class AFKManager {
 
         if (afkPlayer != null && afkPlayer.isInRegion()) {
             afkPlayer.exitRegion();
+            plugin.getLeaderboardManager().update(afkPlayer);
 
             // Send chat message
-            String message = plugin.getConfigManager().getMessages()
-                .getString("messages.exit-region", "%prefix% <red>You left the AFK Pool. Progress reset.</red>");
-            String prefix = plugin.getConfigManager().getPrefix();
-            message = message.replace("%prefix%", prefix);
-
-            Component messageComponent = dev.alone.aFKZone.util.MessageUtil.toComponentWithPlaceholders(player, message);
+            Component messageComponent = plugin.getConfigManager().getTemplate("messages.exit-region").render(player);
             player.sendMessage(messageComponent);
 
             if (plugin.getConfigManager().isDebug()) {
@@ -165,14 +347,28 @@ public class AFKManager {
     /**
      * Update a player's region status
      * @param player The player
-     * @param inRegion Whether they're in the region
+     * @param zone The zone they're in, or null if outside every zone
      */
-    public void updateRegionStatus(Player player, boolean inRegion) {
+    public void updateRegionStatus(Player player, Zone zone) {
+        // Wait for the stored data rather than tracking a blank player that gets replaced
+        if (loading.contains(player.getUniqueId())) {
+            return;
+        }
+
         AFKPlayer afkPlayer = getOrCreateAFKPlayer(player);
 
-        if (inRegion && !afkPlayer.isInRegion()) {
-            handleEnterRegion(player);
-        } else if (!inRegion && afkPlayer.isInRegion()) {
+        // Runs on the player's region thread, so the location is safe to read here
+        Location loc = player.getLocation();
+        afkPlayer.setLastChunk(loc.getWorld().getUID(), loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
+
+        // Moving straight into another zone switches pool and interval, so restart progress
+        if (zone != null && afkPlayer.isInRegion() && !zone.getId().equals(afkPlayer.getZoneId())) {
+            handleExitRegion(player);
+        }
+
+        if (zone != null && !afkPlayer.isInRegion()) {
+            handleEnterRegion(player, zone);
+        } else if (zone == null && afkPlayer.isInRegion()) {
             handleExitRegion(player);
         }
     }
@@ -182,6 +378,7 @@ public class AFKManager {
      */
     public void clearAll() {
         afkPlayers.clear();
+        plugin.getLeaderboardManager().clear();
     }
 
     /**
@@ -201,4 +398,25 @@ public class AFKManager {
             .filter(AFKPlayer::isInRegion)
             .count();
     }
+
+    /**
+     * An offline player with the time they quit
+     */
+    private static final class QuitEntry {
+        private final AFKPlayer player;
+        private final long quitAt;
+
+        private QuitEntry(AFKPlayer player, long quitAt) {
+            this.player = player;
+            this.quitAt = quitAt;
+        }
+
+        private AFKPlayer getPlayer() {
+            return player;
+        }
+
+        private long getQuitAt() {
+            return quitAt;
+        }
+    }
 }
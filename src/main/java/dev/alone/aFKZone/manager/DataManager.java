@@ -2,72 +2,475 @@ package dev.alone.aFKZone.manager;
 
 import dev.alone.aFKZone.AFKZone;
 import dev.alone.aFKZone.data.AFKPlayer;
-import org.bukkit.configuration.file.YamlConfiguration;
+import dev.alone.aFKZone.data.PlayerSummary;
+import dev.alone.aFKZone.storage.BinaryPlayerStorage;
+import dev.alone.aFKZone.storage.PlayerStorage;
+import dev.alone.aFKZone.storage.SqlitePlayerStorage;
+import dev.alone.aFKZone.storage.YamlPlayerStorage;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 
 /**
  * Manages data persistence for AFK players
+ * Saves go through a write-behind queue keyed by UUID: repeated saves of the
+ * same player coalesce, and a single writer thread flushes them in batches
  */
 public class DataManager {
 
+    // Upper bound on players written per writer wakeup
+    private static final int MAX_BATCH_SIZE = 256;
+
+    // Queued after shutdown to stop the writer once it reaches it
+    private static final UUID STOP = new UUID(0L, 0L);
+
+    // Pause after a failed batch before the re-queued players are retried
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    // Attempts at the final flush before unsaved players are given up on
+    private static final int FINAL_FLUSH_ATTEMPTS = 3;
+
+    // Players migrated between progress messages
+    private static final int MIGRATION_LOG_INTERVAL = 10000;
+
+    // Prefetched data not claimed by a join within this time is discarded
+    private static final long PREFETCH_TTL = TimeUnit.SECONDS.toNanos(60);
+
     private final AFKZone plugin;
-    private final File dataFolder;
+
+    // Replaced by YAML only if migration into the selected backend fails, before storageReady opens
+    private volatile PlayerStorage storage;
+
+    // YAML data still to be imported into storage by the writer, or null
+    private YamlPlayerStorage migrationSource;
+
+    // Opened once migration is done; loads wait on it so no player reads a half-migrated store
+    private final CountDownLatch storageReady;
+
+    // Pending writes by player; the queue only orders UUIDs that have an entry
+    private final Map<UUID, PendingWrite> pendingWrites;
+    private final BlockingQueue<UUID> writeQueue;
+    private final Thread writer;
+
+    // Data loaded at pre-login, waiting for the player's join
+    private final Map<UUID, Prefetched> prefetched;
+
+    private final LongAdder writesQueued;
+    private final LongAdder writesCoalesced;
+    private final LongAdder writesCompleted;
+    private final LongAdder writesFailed;
+    private final LongAdder totalFlushLatency;
+    private volatile long maxFlushLatency;
+    private volatile long lastFlushLatency;
 
     /**
      * Create a new DataManager
+     * YAML data is migrated into a newly selected backend on the writer thread;
+     * loads wait for it and queued saves are written once it is done
      * @param plugin The plugin instance
      */
     public DataManager(AFKZone plugin) {
         this.plugin = plugin;
-        this.dataFolder = new File(plugin.getDataFolder(), "data/players");
+        this.storageReady = new CountDownLatch(1);
+        this.storage = openStorage();
+
+        this.pendingWrites = new ConcurrentHashMap<>();
+        this.writeQueue = new LinkedBlockingQueue<>();
+        this.prefetched = new ConcurrentHashMap<>();
+        this.writesQueued = new LongAdder();
+        this.writesCoalesced = new LongAdder();
+        this.writesCompleted = new LongAdder();
+        this.writesFailed = new LongAdder();
+        this.totalFlushLatency = new LongAdder();
+
+        this.writer = new Thread(this::runWriter, "AFKZone-Writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Open the storage backend selected by database.type
+     * Falls back to YAML if the backend is unknown or cannot be opened
+     * @return The open storage
+     */
+    private PlayerStorage openStorage() {
+        YamlPlayerStorage yaml = new YamlPlayerStorage(new File(plugin.getDataFolder(), "data/players"),
+            new File(plugin.getDataFolder(), "data/players.idx"), plugin.getLogger());
+        String type = plugin.getConfigManager().getDatabaseType();
+
+        PlayerStorage selected = null;
+        if (type.equals("BINARY")) {
+            selected = new BinaryPlayerStorage(new File(plugin.getDataFolder(), "data/players.dat"));
+        } else if (type.equals("SQLITE")) {
+            selected = new SqlitePlayerStorage(new File(plugin.getDataFolder(), "data/" + plugin.getConfigManager().getSqliteFile()),
+                plugin.getConfigManager().getSqlitePoolSize());
+        } else if (!type.equals("YAML")) {
+            plugin.getLogger().warning("Unsupported database type: " + type + ", using YAML");
+        }
+
+        if (selected != null) {
+            try {
+                selected.open();
+                migrationSource = yaml;
+                return selected;
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to open " + selected.getName() + " player storage, falling back to YAML", e);
+                selected.close();
+            }
+        }
+
+        try {
+            yaml.open();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to open YAML player storage", e);
+        }
+        return yaml;
+    }
+
+    /**
+     * Run any pending migration, falling back to YAML if it fails, then let loads through
+     * Runs on the writer thread before it takes any queued save
+     */
+    private void prepareStorage() {
+        YamlPlayerStorage yaml = migrationSource;
+        migrationSource = null;
+        try {
+            if (yaml != null) {
+                migrate(yaml, storage);
+            }
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to migrate YAML player data to " + storage.getName()
+                + " storage, falling back to YAML; the migration resumes on the next start", e);
+            storage.close();
+            try {
+                yaml.open();
+            } catch (IOException openFailure) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to open YAML player storage", openFailure);
+            }
+            storage = yaml;
+        } finally {
+            storageReady.countDown();
+        }
+    }
 
-        // Create data folder if it doesn't exist
-        if (!dataFolder.exists()) {
-            dataFolder.mkdirs();
+    /**
+     * Wait until storage is ready to serve loads
+     * Returns at once except while a migration is running
+     */
+    private void awaitStorage() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                storageReady.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
         }
     }
 
     /**
-     * Save player data to a file
+     * Import existing YAML player files into the new store
+     * Resumable: players the new store already holds are skipped, since they were
+     * migrated before an interrupted run or saved by the plugin since, and a marker
+     * file is written once every player has been imported
+     * @param from The YAML storage
+     * @param to The new storage
+     */
+    private void migrate(YamlPlayerStorage from, PlayerStorage to) throws IOException {
+        File marker = new File(plugin.getDataFolder(), "data/.migrated-" + to.getName().toLowerCase());
+        if (marker.exists()) {
+            return;
+        }
+
+        List<UUID> uuids = from.listStored();
+        if (!uuids.isEmpty()) {
+            Set<UUID> stored = new HashSet<>();
+            for (PlayerSummary summary : to.loadSummaries()) {
+                stored.add(summary.getUuid());
+            }
+
+            plugin.getLogger().info("Migrating " + uuids.size() + " players from YAML to " + to.getName() + " storage"
+                + (stored.isEmpty() ? "" : ", resuming with " + stored.size() + " already stored")
+                + " in the background; joining players wait for it to finish");
+
+            List<AFKPlayer> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            int migrated = 0;
+            int checked = 0;
+            for (UUID uuid : uuids) {
+                if (++checked % MIGRATION_LOG_INTERVAL == 0) {
+                    plugin.getLogger().info("Migration progress: " + checked + " / " + uuids.size() + " players");
+                }
+                if (stored.contains(uuid)) {
+                    continue;
+                }
+
+                AFKPlayer afkPlayer = from.load(uuid);
+                if (afkPlayer == null) {
+                    continue;
+                }
+                batch.add(afkPlayer);
+                if (batch.size() == MAX_BATCH_SIZE) {
+                    to.saveBatch(batch);
+                    migrated += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                to.saveBatch(batch);
+                migrated += batch.size();
+            }
+
+            plugin.getLogger().info("Migrated " + migrated + " players from YAML to " + to.getName() + " storage");
+        }
+
+        if (!marker.createNewFile() && !marker.exists()) {
+            throw new IOException("Could not create " + marker);
+        }
+    }
+
+    /**
+     * Queue a player for saving
+     * If the player is already queued the requests coalesce into one write
+     * of the latest state
      * @param afkPlayer The AFKPlayer to save
      */
-    public void savePlayerData(AFKPlayer afkPlayer) {
+    public void queueSave(AFKPlayer afkPlayer) {
         if (!plugin.getConfigManager().isPersistData()) {
             return;
         }
 
+        writesQueued.increment();
+        UUID uuid = afkPlayer.getUuid();
+        long now = System.nanoTime();
+
+        while (true) {
+            PendingWrite previous = pendingWrites.putIfAbsent(uuid, new PendingWrite(afkPlayer, now));
+            if (previous == null) {
+                writeQueue.offer(uuid);
+                return;
+            }
+
+            // Keep the original queue time, but always write the newest object
+            if (previous.getPlayer() == afkPlayer
+                || pendingWrites.replace(uuid, previous, new PendingWrite(afkPlayer, previous.getQueuedAt()))) {
+                writesCoalesced.increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writer thread loop: wait for work, then flush everything queued so far
+     * The writer is the only thread that writes to storage; on stop it
+     * flushes whatever is still pending before exiting
+     */
+    private void runWriter() {
+        prepareStorage();
+
+        List<UUID> batch = new ArrayList<>();
+
+        while (true) {
+            try {
+                batch.add(writeQueue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            writeQueue.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+            boolean stop = batch.remove(STOP);
+            boolean saved = writeBatch(batch);
+            batch.clear();
+
+            if (stop) {
+                flushRemaining();
+                return;
+            }
+            if (!saved) {
+                pause();
+            }
+        }
+    }
+
+    /**
+     * Write every pending player, retrying failed batches a few times
+     * Runs on the writer thread once it has been told to stop
+     */
+    private void flushRemaining() {
+        for (int attempt = 1; !pendingWrites.isEmpty(); attempt++) {
+            List<UUID> remaining = new ArrayList<>(pendingWrites.keySet());
+            for (int from = 0; from < remaining.size(); from += MAX_BATCH_SIZE) {
+                writeBatch(remaining.subList(from, Math.min(from + MAX_BATCH_SIZE, remaining.size())));
+            }
+
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+            if (attempt == FINAL_FLUSH_ATTEMPTS) {
+                plugin.getLogger().severe("Giving up on saving " + pendingWrites.size() + " players after "
+                    + FINAL_FLUSH_ATTEMPTS + " attempts; their latest changes are lost");
+                pendingWrites.clear();
+                return;
+            }
+            pause();
+        }
+    }
+
+    private void pause() {
         try {
-            File playerFile = new File(dataFolder, afkPlayer.getUuid().toString() + ".yml");
-            YamlConfiguration config = new YamlConfiguration();
+            Thread.sleep(RETRY_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-            config.set("uuid", afkPlayer.getUuid().toString());
-            config.set("name", afkPlayer.getName());
-            config.set("total-afk-time", afkPlayer.getTotalAFKTime());
-            config.set("total-rewards", afkPlayer.getTotalRewards());
-            config.set("last-reward-time", afkPlayer.getLastRewardTime());
-            config.set("last-reward-name", afkPlayer.getLastRewardName());
-            config.set("rewards-disabled", afkPlayer.isRewardsDisabled());
+    /**
+     * Write a batch of queued players
+     * Players in a failed batch are queued again unless a newer save is already queued
+     * @param uuids The queued player UUIDs
+     * @return false if the batch failed
+     */
+    private boolean writeBatch(List<UUID> uuids) {
+        List<PendingWrite> writes = new ArrayList<>(uuids.size());
+        List<AFKPlayer> players = new ArrayList<>(uuids.size());
+        for (UUID uuid : uuids) {
+            // Removed before writing, so a save queued meanwhile is written again
+            PendingWrite pending = pendingWrites.remove(uuid);
+            if (pending != null) {
+                writes.add(pending);
+                players.add(pending.getPlayer());
+            }
+        }
+        if (writes.isEmpty()) {
+            return true;
+        }
+
+        // Captured before reading fields, so concurrent changes stay dirty
+        long[] versions = new long[players.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = players.get(i).getVersion();
+        }
+
+        try {
+            storage.saveBatch(players);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to save a batch of " + players.size() + " players, retrying", e);
+            writesFailed.add(writes.size());
+            for (PendingWrite pending : writes) {
+                if (pendingWrites.putIfAbsent(pending.getPlayer().getUuid(), pending) == null) {
+                    writeQueue.offer(pending.getPlayer().getUuid());
+                }
+            }
+            return false;
+        }
 
-            // Save rewards by type
-            config.set("rewards-by-type", afkPlayer.getRewardsByType());
+        for (int i = 0; i < versions.length; i++) {
+            players.get(i).markSaved(versions[i]);
+        }
 
-            config.save(playerFile);
+        if (plugin.getConfigManager().isDebug()) {
+            plugin.getLogger().info("Saved data for " + players.size() + " players");
+        }
 
-            if (plugin.getConfigManager().isDebug()) {
-                plugin.getLogger().info("Saved data for " + afkPlayer.getName());
+        long now = System.nanoTime();
+        for (PendingWrite pending : writes) {
+            long latency = TimeUnit.NANOSECONDS.toMillis(now - pending.getQueuedAt());
+            writesCompleted.increment();
+            totalFlushLatency.add(latency);
+            lastFlushLatency = latency;
+            if (latency > maxFlushLatency) {
+                maxFlushLatency = latency;
             }
+        }
+        return true;
+    }
 
-        } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to save player data for " + afkPlayer.getName(), e);
+    /**
+     * Stop the writer thread once it has flushed every pending write, then close storage
+     * Called on disable, after the final saves have been queued
+     * The writer is never interrupted, since that could abort a write halfway
+     */
+    public void shutdown() {
+        writeQueue.offer(STOP);
+
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            if (writer.isAlive()) {
+                plugin.getLogger().warning("Still waiting for the player data writer (" + getQueueDepth() + " players pending)");
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
         }
+
+        storage.close();
     }
 
     /**
-     * Load player data from a file
+     * Check if a player has a write waiting in the queue
+     * @param uuid The player's UUID
+     * @return true if a write is pending
+     */
+    public boolean isPending(UUID uuid) {
+        return pendingWrites.containsKey(uuid);
+    }
+
+    /**
+     * Get the player object waiting to be written, if any
+     * It is newer than the stored data, so loads should prefer it
+     * @param uuid The player's UUID
+     * @return The pending AFKPlayer, or null
+     */
+    public AFKPlayer getPendingPlayer(UUID uuid) {
+        PendingWrite pending = pendingWrites.get(uuid);
+        return pending != null ? pending.getPlayer() : null;
+    }
+
+    /**
+     * Get the number of players waiting to be written
+     * @return Queue depth
+     */
+    public int getQueueDepth() {
+        return pendingWrites.size();
+    }
+
+    /**
+     * Get write-behind queue statistics
+     * @return Statistics string
+     */
+    public String getWriteStats() {
+        long completed = writesCompleted.sum();
+        long averageLatency = completed > 0 ? totalFlushLatency.sum() / completed : 0;
+        return String.format("Storage: %s, writes: %d queued, %d coalesced, %d written, %d failed, depth %d, flush latency avg %dms / last %dms / max %dms",
+            storage.getName(), writesQueued.sum(), writesCoalesced.sum(), completed, writesFailed.sum(), getQueueDepth(),
+            averageLatency, lastFlushLatency, maxFlushLatency);
+    }
+
+    /**
+     * Load player data from storage
+     * Blocking, and waits for a running migration; call off the main thread
      * @param uuid The player's UUID
      * @return The loaded AFKPlayer, or null if not found
      */
@@ -76,32 +479,15 @@ public class DataManager {
             return null;
         }
 
+        awaitStorage();
         try {
-            File playerFile = new File(dataFolder, uuid.toString() + ".yml");
-
-            if (!playerFile.exists()) {
+            AFKPlayer afkPlayer = storage.load(uuid);
+            if (afkPlayer == null) {
                 return null;
             }
 
-            YamlConfiguration config = YamlConfiguration.loadConfiguration(playerFile);
-
-            AFKPlayer afkPlayer = new AFKPlayer(uuid);
-            afkPlayer.setName(config.getString("name", "Unknown"));
-            afkPlayer.setTotalAFKTime(config.getLong("total-afk-time", 0));
-            afkPlayer.setTotalRewards(config.getInt("total-rewards", 0));
-            afkPlayer.setLastRewardTime(config.getLong("last-reward-time", 0));
-            afkPlayer.setLastRewardName(config.getString("last-reward-name", "None"));
-            afkPlayer.setRewardsDisabled(config.getBoolean("rewards-disabled", false));
-
-            // Load rewards by type
-            if (config.contains("rewards-by-type")) {
-                for (String type : config.getConfigurationSection("rewards-by-type").getKeys(false)) {
-                    int count = config.getInt("rewards-by-type." + type, 0);
-                    for (int i = 0; i < count; i++) {
-                        afkPlayer.incrementRewardType(type);
-                    }
-                }
-            }
+            // Freshly loaded data matches storage
+            afkPlayer.markSaved(afkPlayer.getVersion());
 
             if (plugin.getConfigManager().isDebug()) {
                 plugin.getLogger().info("Loaded data for " + afkPlayer.getName());
@@ -116,7 +502,36 @@ public class DataManager {
     }
 
     /**
-     * Save all player data
+     * Load a player's data ahead of their join and stage it for {@link #takePrefetched(UUID)}
+     * Blocking; called from the async pre-login event
+     * @param uuid The player's UUID
+     */
+    public void prefetch(UUID uuid) {
+        long now = System.nanoTime();
+        prefetched.values().removeIf(entry -> now - entry.getLoadedAt() > PREFETCH_TTL);
+
+        AFKPlayer afkPlayer = loadPlayerData(uuid);
+        // First join: stage a fresh player so the join never waits on storage
+        // Timed from the end of the load, which may have waited on a migration
+        prefetched.put(uuid, new Prefetched(afkPlayer != null ? afkPlayer : new AFKPlayer(uuid), System.nanoTime()));
+    }
+
+    /**
+     * Take the data staged for a joining player
+     * @param uuid The player's UUID
+     * @return The staged AFKPlayer, or null if none was prefetched or it expired
+     */
+    public AFKPlayer takePrefetched(UUID uuid) {
+        Prefetched entry = prefetched.remove(uuid);
+        if (entry == null || System.nanoTime() - entry.getLoadedAt() > PREFETCH_TTL) {
+            return null;
+        }
+        return entry.getPlayer();
+    }
+
+    /**
+     * Queue all players that changed since their last successful save
+     * Unchanged players are skipped, so the cost scales with activity
      */
     public void saveAllPlayerData() {
         if (!plugin.getConfigManager().isPersistData()) {
@@ -125,30 +540,103 @@ public class DataManager {
 
         int count = 0;
         for (AFKPlayer afkPlayer : plugin.getAFKManager().getAllPlayers()) {
-            savePlayerData(afkPlayer);
+            if (!afkPlayer.isDirty()) {
+                continue;
+            }
+            queueSave(afkPlayer);
             count++;
         }
+
+        if (plugin.getConfigManager().isDebug()) {
+            plugin.getLogger().info("Auto-save queued " + count + " changed players");
+        }
     }
 
     /**
-     * Delete player data file
+     * Delete a player's stored data
      * @param uuid The player's UUID
      * @return true if successful
      */
     public boolean deletePlayerData(UUID uuid) {
-        File playerFile = new File(dataFolder, uuid.toString() + ".yml");
-        if (playerFile.exists()) {
-            return playerFile.delete();
+        awaitStorage();
+        try {
+            boolean deleted = storage.delete(uuid);
+            if (deleted) {
+                plugin.getLeaderboardManager().remove(uuid);
+            }
+            return deleted;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to delete player data for UUID " + uuid, e);
+            return false;
         }
-        return false;
     }
 
     /**
-     * Get the number of saved player files
-     * @return Number of player files
+     * Get the number of stored players
+     * @return Number of stored players
      */
     public int getSavedPlayerCount() {
-        File[] files = dataFolder.listFiles((dir, name) -> name.endsWith(".yml"));
-        return files != null ? files.length : 0;
+        return storage.count();
+    }
+
+    /**
+     * Load the leaderboard totals of every stored player from the storage's aggregate index
+     * Blocking; call off the main thread
+     * @return One summary per stored player, empty if persistence is disabled or the index fails
+     */
+    public List<PlayerSummary> loadSummaries() {
+        if (!plugin.getConfigManager().isPersistData()) {
+            return Collections.emptyList();
+        }
+
+        awaitStorage();
+        try {
+            return storage.loadSummaries();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load the player leaderboard index", e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * A player waiting to be written, with the time it was first queued
+     */
+    private static final class PendingWrite {
+        private final AFKPlayer player;
+        private final long queuedAt;
+
+        private PendingWrite(AFKPlayer player, long queuedAt) {
+            this.player = player;
+            this.queuedAt = queuedAt;
+        }
+
+        private AFKPlayer getPlayer() {
+            return player;
+        }
+
+        private long getQueuedAt() {
+            return queuedAt;
+        }
+    }
+
+    /**
+     * A player loaded at pre-login, with the time it was loaded
+     */
+    private static final class Prefetched {
+        private final AFKPlayer player;
+        private final long loadedAt;
+
+        private Prefetched(AFKPlayer player, long loadedAt) {
+            this.player = player;
+            this.loadedAt = loadedAt;
+        }
+
+        private AFKPlayer getPlayer() {
+            return player;
+        }
+
+        private long getLoadedAt() {
+            return loadedAt;
+        }
     }
 }
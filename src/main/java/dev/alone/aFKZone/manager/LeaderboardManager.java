@@ -2,16 +2,21 @@ package dev.alone.aFKZone.manager;
 
 import dev.alone.aFKZone.AFKZone;
 import dev.alone.aFKZone.data.AFKPlayer;
+import dev.alone.aFKZone.data.PlayerSummary;
+import dev.alone.aFKZone.util.RankedIndex;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Manages leaderboard data and rankings
+ * Every known player, online or offline, is kept in one ranked index per
+ * sort type, updated whenever a score changes, so reads never sort
  */
 public class LeaderboardManager {
 
     private final AFKZone plugin;
+    private final RankedIndex<PlayerSummary> byRewards;
+    private final RankedIndex<PlayerSummary> byTime;
 
     /**
      * Create a new LeaderboardManager
@@ -19,30 +24,69 @@ public class LeaderboardManager {
      */
     public LeaderboardManager(AFKZone plugin) {
         this.plugin = plugin;
+        this.byRewards = new RankedIndex<>();
+        this.byTime = new RankedIndex<>();
+    }
+
+    /**
+     * Update a player's position after their totals changed
+     * @param afkPlayer The AFKPlayer
+     */
+    public void update(AFKPlayer afkPlayer) {
+        PlayerSummary summary = PlayerSummary.of(afkPlayer);
+        byRewards.update(summary.getUuid(), summary.getTotalRewards(), summary);
+        byTime.update(summary.getUuid(), summary.getTotalAFKTime(), summary);
+    }
+
+    /**
+     * Add stored players loaded at startup
+     * Players already indexed joined since startup and are newer, so they are kept
+     * @param summaries The stored player summaries
+     */
+    public void seed(List<PlayerSummary> summaries) {
+        for (PlayerSummary summary : summaries) {
+            byRewards.putIfAbsent(summary.getUuid(), summary.getTotalRewards(), summary);
+            byTime.putIfAbsent(summary.getUuid(), summary.getTotalAFKTime(), summary);
+        }
+
+        if (plugin.getConfigManager().isDebug()) {
+            plugin.getLogger().info("Loaded " + summaries.size() + " players into the leaderboards");
+        }
+    }
+
+    /**
+     * Remove a player whose data is no longer kept
+     * @param uuid The player's UUID
+     */
+    public void remove(UUID uuid) {
+        byRewards.remove(uuid);
+        byTime.remove(uuid);
+    }
+
+    /**
+     * Remove every player
+     */
+    public void clear() {
+        byRewards.clear();
+        byTime.clear();
     }
 
     /**
      * Get top players by total rewards received
      * @param limit Maximum number of players to return
-     * @return List of top AFKPlayers sorted by total rewards
+     * @return List of top players sorted by total rewards
      */
-    public List<AFKPlayer> getTopByRewards(int limit) {
-        return plugin.getAFKManager().getAllPlayers().stream()
-            .sorted(Comparator.comparingInt(AFKPlayer::getTotalRewards).reversed())
-            .limit(limit)
-            .collect(Collectors.toList());
+    public List<PlayerSummary> getTopByRewards(int limit) {
+        return byRewards.top(limit);
     }
 
     /**
      * Get top players by total AFK time
      * @param limit Maximum number of players to return
-     * @return List of top AFKPlayers sorted by total AFK time
+     * @return List of top players sorted by total AFK time
      */
-    public List<AFKPlayer> getTopByTime(int limit) {
-        return plugin.getAFKManager().getAllPlayers().stream()
-            .sorted(Comparator.comparingLong(AFKPlayer::getTotalAFKTime).reversed())
-            .limit(limit)
-            .collect(Collectors.toList());
+    public List<PlayerSummary> getTopByTime(int limit) {
+        return byTime.top(limit);
     }
 
     /**
@@ -51,17 +95,7 @@ public class LeaderboardManager {
      * @return The player's rank (1-indexed), or -1 if not found
      */
     public int getRankByRewards(AFKPlayer afkPlayer) {
-        List<AFKPlayer> sorted = plugin.getAFKManager().getAllPlayers().stream()
-            .sorted(Comparator.comparingInt(AFKPlayer::getTotalRewards).reversed())
-            .collect(Collectors.toList());
-
-        for (int i = 0; i < sorted.size(); i++) {
-            if (sorted.get(i).getUuid().equals(afkPlayer.getUuid())) {
-                return i + 1; // 1-indexed
-            }
-        }
-
-        return -1;
+        return byRewards.rank(afkPlayer.getUuid());
     }
 
     /**
@@ -70,17 +104,7 @@ public class LeaderboardManager {
      * @return The player's rank (1-indexed), or -1 if not found
      */
     public int getRankByTime(AFKPlayer afkPlayer) {
-        List<AFKPlayer> sorted = plugin.getAFKManager().getAllPlayers().stream()
-            .sorted(Comparator.comparingLong(AFKPlayer::getTotalAFKTime).reversed())
-            .collect(Collectors.toList());
-
-        for (int i = 0; i < sorted.size(); i++) {
-            if (sorted.get(i).getUuid().equals(afkPlayer.getUuid())) {
-                return i + 1; // 1-indexed
-            }
-        }
-
-        return -1;
+        return byTime.rank(afkPlayer.getUuid());
     }
 
     /**
@@ -2,28 +2,47 @@ package dev.alone.aFKZone.manager;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.sk89q.worldedit.bukkit.BukkitAdapter;
-import com.sk89q.worldguard.WorldGuard;
-import com.sk89q.worldguard.protection.ApplicableRegionSet;
-import com.sk89q.worldguard.protection.regions.RegionContainer;
-import com.sk89q.worldguard.protection.regions.RegionQuery;
+import com.google.common.cache.CacheStats;
 import dev.alone.aFKZone.AFKZone;
+import dev.alone.aFKZone.data.Zone;
+import dev.alone.aFKZone.data.ZoneShape;
+import dev.alone.aFKZone.hook.WorldGuardHook;
+import dev.alone.aFKZone.util.FoliaScheduler;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Manages WorldGuard region detection and caching
+ * Manages AFK zone detection (native zones and optional WorldGuard regions) and caching
  */
 public class RegionManager {
 
     private final AFKZone plugin;
-    private final Cache<UUID, Boolean> regionCache;
-    private RegionContainer container;
-    private RegionQuery query;
+    // Zone ID per block for the WorldGuard query path ("" = no zone)
+    private final Cache<BlockKey, String> regionCache;
+    private final LongAdder snapshotChecks;
+
+    // Per-player async check state: absent = idle, otherwise in flight with the latest requested position
+    private final Map<UUID, PendingCheck> pendingChecks;
+    private final LongAdder checksScheduled;
+    private final LongAdder checksCollapsed;
+    private WorldGuardHook worldGuard;
+
+    // Per-world zone indexes, replaced wholesale on rebuild
+    private volatile Map<UUID, WorldState> worldStates;
+    private ScheduledTask refreshTask;
 
     /**
      * Create a new RegionManager
@@ -31,80 +50,305 @@ public class RegionManager {
      */
     public RegionManager(AFKZone plugin) {
         this.plugin = plugin;
+        this.worldStates = Collections.emptyMap();
+        this.snapshotChecks = new LongAdder();
+        this.pendingChecks = new ConcurrentHashMap<>();
+        this.checksScheduled = new LongAdder();
+        this.checksCollapsed = new LongAdder();
 
         // Initialize cache with expiry based on config
-        int cacheDuration = plugin.getConfigManager().getConfig()
-            .getInt("performance.region-cache-duration", 20);
+        int cacheDuration = plugin.getConfigManager().getRegionCacheDuration();
 
+        // Keyed by block rather than player so everyone standing on the same blocks shares results
         this.regionCache = CacheBuilder.newBuilder()
             .expireAfterWrite(cacheDuration * 50L, TimeUnit.MILLISECONDS) // Convert ticks to ms
-            .maximumSize(1000)
+            .maximumSize(10000)
+            .recordStats()
             .build();
     }
 
     /**
-     * Initialize WorldGuard hook
-     * @return true if successful
+     * Hook WorldGuard if installed and build the zone index
+     * @return true if at least one zone can be detected
      */
     public boolean initialize() {
-        try {
-            container = WorldGuard.getInstance().getPlatform().getRegionContainer();
-            query = container.createQuery();
-            plugin.getLogger().info("WorldGuard hook initialized successfully!");
-            return true;
-        } catch (Exception e) {
-            plugin.getLogger().severe("Failed to initialize WorldGuard hook: " + e.getMessage());
-            return false;
+        if (Bukkit.getPluginManager().getPlugin("WorldGuard") != null) {
+            try {
+                worldGuard = new WorldGuardHook();
+                plugin.getLogger().info("WorldGuard hook initialized successfully!");
+            } catch (Exception | LinkageError e) {
+                plugin.getLogger().severe("Failed to initialize WorldGuard hook: " + e.getMessage());
+            }
+        } else {
+            plugin.getLogger().info("WorldGuard not found, only native zones will be used");
+        }
+
+        rebuildSnapshots();
+
+        // WorldGuard has no region change event, so watch for redefined regions (and new worlds) instead
+        int refreshInterval = Math.max(20, plugin.getConfigManager().getRegionRefreshInterval());
+        refreshTask = FoliaScheduler.runGlobalTimer(plugin, this::refreshSnapshots, refreshInterval, refreshInterval);
+
+        return worldGuard != null || plugin.getConfigManager().getZones().stream().anyMatch(Zone::isNative);
+    }
+
+    /**
+     * Check if the WorldGuard hook is active
+     * @return true if WorldGuard regions can be used
+     */
+    public boolean isWorldGuardEnabled() {
+        return worldGuard != null;
+    }
+
+    /**
+     * Stop the snapshot refresh task
+     */
+    public void shutdown() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
         }
     }
 
     /**
-     * Check if a player is in the AFK region
+     * Get the AFK zone a player is standing in
      * @param player The player to check
-     * @return true if in AFK region
+     * @return The zone, or null if not in any AFK zone
      */
-    public boolean isInAFKRegion(Player player) {
-        return checkWorldGuardRegion(player);
+    public Zone getZone(Player player) {
+        return getZoneAt(player.getLocation());
     }
 
     /**
-     * Check WorldGuard region directly
+     * Get the AFK zone at a location
+     * @param loc The location to check
+     * @return The highest priority zone, or null if not in any AFK zone
+     */
+    public Zone getZoneAt(Location loc) {
+        World world = loc.getWorld();
+        if (world == null) {
+            return null;
+        }
+
+        WorldState state = worldStates.get(world.getUID());
+        if (state == null) {
+            // World appeared after the last rebuild
+            return worldGuard != null ? checkCachedRegion(loc) : null;
+        }
+
+        Zone zone = null;
+        if (state.index.getZoneCount() > 0) {
+            snapshotChecks.increment();
+            zone = state.index.find(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+        }
+
+        // Region types without a geometry snapshot (e.g. global or custom regions)
+        if (state.hasUnsnapshotted) {
+            Zone queried = checkCachedRegion(loc);
+            if (queried != null && (zone == null || queried.getPriority() > zone.getPriority())) {
+                zone = queried;
+            }
+        }
+
+        return zone;
+    }
+
+    /**
+     * Request an asynchronous region check for a player
+     * At most one check per player is in flight; requests that arrive while
+     * one is pending collapse into a single re-check of the latest position
      * @param player The player to check
-     * @return true if in AFK region
+     * @param to The position to check (the move event's destination, which the
+     *           player's own location does not reflect until the event completes)
      */
-    private boolean checkWorldGuardRegion(Player player) {
-        try {
-            Location loc = player.getLocation();
+    public void requestCheck(Player player, Location to) {
+        Location position = to.clone();
+        PendingCheck state = pendingChecks.compute(player.getUniqueId(),
+            (uuid, pending) -> new PendingCheck(position, pending != null));
+
+        if (state.isRerun()) {
+            checksCollapsed.increment();
+        } else {
+            scheduleCheck(player);
+        }
+    }
 
-            com.sk89q.worldguard.protection.managers.RegionManager regionManager =
-                container.get(BukkitAdapter.adapt(loc.getWorld()));
+    /**
+     * Run a region check off-thread and apply the result on the player's region thread
+     * @param player The player to check
+     */
+    private void scheduleCheck(Player player) {
+        checksScheduled.increment();
 
-            if (regionManager == null) {
-                return false;
+        FoliaScheduler.runAsync(plugin, () -> {
+            PendingCheck pending = pendingChecks.get(player.getUniqueId());
+            if (pending == null) {
+                // Cancelled by a quit
+                return;
             }
+            Zone zone = getZoneAt(pending.getPosition());
+
+            // Update status on the player's region thread
+            FoliaScheduler.runEntity(plugin, player, () -> {
+                plugin.getAFKManager().updateRegionStatus(player, zone);
+                completeCheck(player);
+            });
+        });
+    }
+
+    /**
+     * Finish an in-flight check, re-running it once if the player moved meanwhile
+     * @param player The player
+     */
+    private void completeCheck(Player player) {
+        PendingCheck rerun = pendingChecks.computeIfPresent(player.getUniqueId(),
+            (uuid, pending) -> pending.isRerun() ? new PendingCheck(pending.getPosition(), false) : null);
+
+        if (rerun != null) {
+            scheduleCheck(player);
+        }
+    }
+
+    /**
+     * Forget any pending check for a player (e.g. on quit, when the
+     * entity task will never run)
+     * @param uuid The player's UUID
+     */
+    public void cancelPendingCheck(UUID uuid) {
+        pendingChecks.remove(uuid);
+    }
 
-            String regionName = plugin.getConfigManager().getRegionName();
-            ApplicableRegionSet set = regionManager.getApplicableRegions(
-                BukkitAdapter.asBlockVector(loc)
-            );
+    /**
+     * Check WorldGuard through the block-keyed membership cache
+     * @param loc The location to check
+     * @return The zone, or null if not in any AFK zone
+     */
+    private Zone checkCachedRegion(Location loc) {
+        BlockKey key = new BlockKey(loc.getWorld().getUID(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+        String cached = regionCache.getIfPresent(key);
+        if (cached != null) {
+            return cached.isEmpty() ? null : plugin.getConfigManager().getZone(cached);
+        }
 
-            return set.getRegions().stream()
-                .anyMatch(region -> region.getId().equalsIgnoreCase(regionName));
+        Zone zone = checkWorldGuardRegion(loc);
+        regionCache.put(key, zone != null ? zone.getId() : "");
+        return zone;
+    }
+
+    /**
+     * Check WorldGuard region directly
+     * @param loc The location to check
+     * @return The highest priority zone whose region applies, or null
+     */
+    private Zone checkWorldGuardRegion(Location loc) {
+        try {
+            Zone best = null;
+            for (String regionId : worldGuard.getApplicableRegionIds(loc)) {
+                Zone zone = plugin.getConfigManager().getZoneByRegion(regionId);
+                if (zone != null && (best == null || zone.getPriority() > best.getPriority())) {
+                    best = zone;
+                }
+            }
+            return best;
 
         } catch (Exception e) {
             if (plugin.getConfigManager().isDebug()) {
                 plugin.getLogger().warning("Error checking WorldGuard region: " + e.getMessage());
             }
-            return false;
+            return null;
         }
     }
 
     /**
-     * Invalidate cache for a specific player
-     * @param uuid The player's UUID
+     * Rebuild the zone index for every loaded world
+     * Called on startup and on /afkzone reload
+     */
+    public void rebuildSnapshots() {
+        List<Zone> zones = plugin.getConfigManager().getZones();
+        Map<UUID, WorldState> states = new HashMap<>();
+        for (World world : Bukkit.getWorlds()) {
+            states.put(world.getUID(), buildState(world, zones));
+        }
+
+        worldStates = Collections.unmodifiableMap(states);
+        regionCache.invalidateAll();
+
+        if (plugin.getConfigManager().isDebug()) {
+            plugin.getLogger().info("Rebuilt zone index for " + states.size() + " worlds (" + zones.size() + " zones)");
+        }
+    }
+
+    /**
+     * Rebuild the index only for newly loaded worlds and worlds where a zone's
+     * WorldGuard region has been redefined, removed, created or loaded since the last build
+     */
+    public void refreshSnapshots() {
+        List<Zone> zones = plugin.getConfigManager().getZones();
+        Map<UUID, WorldState> current = worldStates;
+        Map<UUID, WorldState> updated = null;
+
+        for (World world : Bukkit.getWorlds()) {
+            WorldState state = current.get(world.getUID());
+            if (state != null && !state.isStale(world, zones)) {
+                continue;
+            }
+
+            if (updated == null) {
+                updated = new HashMap<>(current);
+            }
+            updated.put(world.getUID(), buildState(world, zones));
+        }
+
+        if (updated != null) {
+            updated.keySet().removeIf(worldId -> Bukkit.getWorld(worldId) == null);
+            worldStates = Collections.unmodifiableMap(updated);
+            regionCache.invalidateAll();
+
+            if (plugin.getConfigManager().isDebug()) {
+                plugin.getLogger().info("WorldGuard region changed, refreshed zone index");
+            }
+        }
+    }
+
+    /**
+     * Build the zone index for a single world
+     * @param world The world
+     * @param zones The configured zones
+     * @return The world state
      */
-    public void invalidateCache(UUID uuid) {
-        regionCache.invalidate(uuid);
+    private WorldState buildState(World world, List<Zone> zones) {
+        Object[] tokens = new Object[zones.size()];
+        List<ZoneIndex.Entry> entries = new ArrayList<>();
+        boolean hasUnsnapshotted = false;
+
+        for (int i = 0; i < zones.size(); i++) {
+            Zone zone = zones.get(i);
+
+            if (zone.isNative()) {
+                if (world.getName().equalsIgnoreCase(zone.getWorldName())) {
+                    entries.add(new ZoneIndex.Entry(zone, zone.getShape()));
+                }
+                continue;
+            }
+
+            if (worldGuard == null) {
+                continue;
+            }
+
+            tokens[i] = worldGuard.getRegionToken(world, zone.getRegionName());
+            if (tokens[i] == null) {
+                continue;
+            }
+
+            ZoneShape shape = worldGuard.createShape(world, zone.getRegionName());
+            if (shape != null) {
+                entries.add(new ZoneIndex.Entry(zone, shape));
+            } else {
+                hasUnsnapshotted = true;
+            }
+        }
+
+        return new WorldState(zones, tokens, new ZoneIndex(entries), hasUnsnapshotted);
     }
 
     /**
@@ -119,7 +363,106 @@ public class RegionManager {
      * @return Cache stats string
      */
     public String getCacheStats() {
+        CacheStats stats = regionCache.stats();
         return "Region Cache - Size: " + regionCache.size() +
-               ", Hit Rate: " + String.format("%.2f%%", regionCache.stats().hitRate() * 100);
+               ", Hits: " + stats.hitCount() +
+               ", Misses: " + stats.missCount() +
+               ", Hit Rate: " + String.format("%.2f%%", stats.hitRate() * 100) +
+               ", Snapshot Checks: " + snapshotChecks.sum();
+    }
+
+    /**
+     * Get async check statistics (for debugging)
+     * @return Check stats string
+     */
+    public String getCheckStats() {
+        return "Region Checks - Scheduled: " + checksScheduled.sum() +
+               ", Collapsed: " + checksCollapsed.sum() +
+               ", Pending: " + pendingChecks.size();
+    }
+
+    /**
+     * The latest position requested for a player's in-flight check
+     */
+    private static final class PendingCheck {
+        private final Location position;
+        // Requested again while in flight, so the position must be checked once more
+        private final boolean rerun;
+
+        private PendingCheck(Location position, boolean rerun) {
+            this.position = position;
+            this.rerun = rerun;
+        }
+
+        public Location getPosition() {
+            return position;
+        }
+
+        public boolean isRerun() {
+            return rerun;
+        }
+    }
+
+    /**
+     * Cache key for a single block in a world
+     */
+    private static final class BlockKey {
+        private final UUID worldId;
+        private final long position;
+
+        private BlockKey(UUID worldId, int x, int y, int z) {
+            this.worldId = worldId;
+            this.position = ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BlockKey)) return false;
+            BlockKey other = (BlockKey) o;
+            return position == other.position && worldId.equals(other.worldId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * worldId.hashCode() + Long.hashCode(position);
+        }
+    }
+
+    /**
+     * Zone index for one world plus the WorldGuard regions it was built from
+     */
+    private final class WorldState {
+        private final List<Zone> zones;
+        private final Object[] tokens;
+        private final ZoneIndex index;
+        private final boolean hasUnsnapshotted;
+
+        private WorldState(List<Zone> zones, Object[] tokens, ZoneIndex index, boolean hasUnsnapshotted) {
+            this.zones = zones;
+            this.tokens = tokens;
+            this.index = index;
+            this.hasUnsnapshotted = hasUnsnapshotted;
+        }
+
+        /**
+         * WorldGuard replaces the region object whenever its definition
+         * changes, and a reload replaces the zone list
+         */
+        private boolean isStale(World world, List<Zone> currentZones) {
+            if (zones != currentZones) {
+                return true;
+            }
+            if (worldGuard == null) {
+                return false;
+            }
+            for (int i = 0; i < zones.size(); i++) {
+                Zone zone = zones.get(i);
+                if (!zone.isNative() && worldGuard.getRegionToken(world, zone.getRegionName()) != tokens[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
@@ -4,72 +4,170 @@ import dev.alone.aFKZone.AFKZone;
 import dev.alone.aFKZone.data.AFKPlayer;
 import dev.alone.aFKZone.data.Reward;
 import dev.alone.aFKZone.data.RewardPool;
+import dev.alone.aFKZone.data.Zone;
 import dev.alone.aFKZone.util.FoliaScheduler;
-import dev.alone.aFKZone.util.ItemBuilder;
-import dev.alone.aFKZone.util.MessageUtil;
-import net.kyori.adventure.key.Key;
 import net.kyori.adventure.sound.Sound;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.title.Title;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.Particle;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
 
-import java.time.Duration;
-
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Manages reward selection and distribution
+ * Grants are planned on the global thread and delivered in per-region batches,
+ * so every inventory, title, sound and particle call runs on the player's owning thread
  */
 public class RewardManager {
 
+    // Chunk shift of a Folia region section (default grid exponent)
+    private static final int SECTION_SHIFT = 4;
+
+    // Batches are spread over this many ticks after planning
+    private static final int BATCH_SPREAD_TICKS = 10;
+
     private final AFKZone plugin;
 
+    // Next reward deadline per player in a zone; stale entries are skipped when polled
+    private final PriorityQueue<RewardDeadline> deadlines;
+
     /**
      * Create a new RewardManager
      * @param plugin The plugin instance
      */
     public RewardManager(AFKZone plugin) {
         this.plugin = plugin;
+        this.deadlines = new PriorityQueue<>(Comparator.comparingLong(RewardDeadline::getTime));
     }
 
     /**
-     * Select a reward for a player using weighted random selection
+     * Schedule the next reward for a player who is in a zone
+     * Called on zone entry, after each grant and when rewards are re-enabled
+     * @param afkPlayer The AFKPlayer
+     */
+    public void scheduleReward(AFKPlayer afkPlayer) {
+        long interval = plugin.getConfigManager().getRewardInterval(afkPlayer.getZoneId());
+        scheduleReward(afkPlayer, afkPlayer.getLastRewardTime() + interval);
+    }
+
+    /**
+     * Schedule a reward at a specific time, superseding any earlier schedule
+     * @param afkPlayer The AFKPlayer
+     * @param deadline The deadline (epoch millis)
+     */
+    private void scheduleReward(AFKPlayer afkPlayer, long deadline) {
+        afkPlayer.setRewardDeadline(deadline);
+        synchronized (deadlines) {
+            deadlines.add(new RewardDeadline(deadline, afkPlayer));
+        }
+    }
+
+    /**
+     * Rebuild the deadline queue from the players currently in a zone
+     * Used after a reload, since reward intervals may have changed
+     */
+    public void rescheduleAll() {
+        synchronized (deadlines) {
+            deadlines.clear();
+        }
+        for (AFKPlayer afkPlayer : plugin.getAFKManager().getPlayersInRegion()) {
+            scheduleReward(afkPlayer);
+        }
+    }
+
+    /**
+     * Resolve a player's reward tier by walking rewards.tier-priority
+     * The first enabled pool whose permission the player has wins
      * @param player The player
-     * @return Selected reward, or null if none available
+     * @return Tier (pool name), "default" if none matches
      */
-    public Reward selectReward(Player player) {
-        // Get the default reward pool
-        RewardPool defaultPool = plugin.getConfigManager().getRewardPools().get("default");
+    public String resolveTier(Player player) {
+        Map<String, RewardPool> pools = plugin.getConfigManager().getRewardPools();
 
-        if (defaultPool == null || !defaultPool.isEnabled()) {
-            plugin.getLogger().warning("Default reward pool not found or disabled");
-            return null;
+        for (String tier : plugin.getConfigManager().getTierPriority()) {
+            RewardPool pool = pools.get(tier);
+            if (pool == null || !pool.isEnabled()) {
+                continue;
+            }
+
+            String permission = pool.getPermission();
+            if (permission == null || permission.isEmpty() || player.hasPermission(permission)) {
+                return tier;
+            }
         }
 
-        if (!defaultPool.hasRewards()) {
-            return null;
+        return "default";
+    }
+
+    /**
+     * Re-resolve and cache a player's reward tier
+     * Called on join, world change, permission refresh and reload only,
+     * so grants and action bars never check permissions themselves
+     * @param player The player
+     */
+    public void refreshTier(Player player) {
+        AFKPlayer afkPlayer = plugin.getAFKManager().getAFKPlayer(player.getUniqueId());
+        if (afkPlayer != null) {
+            afkPlayer.setRewardTier(resolveTier(player));
         }
+    }
 
-        // Weighted random selection
-        double totalWeight = defaultPool.getTotalWeight();
-        double random = ThreadLocalRandom.current().nextDouble(0, totalWeight);
+    /**
+     * Re-resolve the reward tier of every online player on their region thread
+     */
+    public void refreshAllTiers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            FoliaScheduler.runEntity(plugin, player, () -> refreshTier(player));
+        }
+    }
 
-        double currentWeight = 0;
-        for (Reward reward : defaultPool.getRewards()) {
-            currentWeight += reward.getChance();
-            if (random <= currentWeight) {
-                return reward;
+    /**
+     * Get the pool a player's rewards are drawn from
+     * A zone's explicit pool takes precedence over the player's tier
+     * @param afkPlayer The AFKPlayer
+     * @param zone The zone the player is in, or null
+     * @return Pool name
+     */
+    public String getPoolName(AFKPlayer afkPlayer, Zone zone) {
+        if (zone != null && zone.getPoolName() != null) {
+            return zone.getPoolName();
+        }
+
+        String tier = afkPlayer != null ? afkPlayer.getRewardTier() : null;
+        return tier != null ? tier : "default";
+    }
+
+    /**
+     * Select a reward for a player using weighted random selection
+     * @param player The player
+     * @param zone The zone the player is in, or null if outside every zone
+     * @return Selected reward, or null if none available
+     */
+    public Reward selectReward(Player player, Zone zone) {
+        // Use the zone's reward pool, then the player's cached tier
+        String poolName = getPoolName(plugin.getAFKManager().getAFKPlayer(player.getUniqueId()), zone);
+        RewardPool pool = plugin.getConfigManager().getRewardPools().get(poolName);
+
+        if (pool == null || !pool.isEnabled()) {
+            // Zone pools are validated at load; this runs on every grant, so stay quiet outside debug
+            if (plugin.getConfigManager().isDebug()) {
+                plugin.getLogger().info("Reward pool '" + poolName + "' not found or disabled");
             }
+            return null;
+        }
+
+        if (!pool.hasRewards()) {
+            return null;
         }
 
-        // Fallback to first reward
-        return defaultPool.getRewards().get(0);
+        // Weighted random selection via the pool's precomputed alias table
+        return pool.select(ThreadLocalRandom.current());
     }
 
     /**
@@ -102,77 +200,48 @@ public class RewardManager {
         afkPlayer.grantReward();
         afkPlayer.setLastRewardName(reward.getDisplayName());
         afkPlayer.incrementRewardType(reward.getType().name());
+        plugin.getLeaderboardManager().update(afkPlayer);
+        scheduleReward(afkPlayer);
 
         // Show title
         if (plugin.getConfigManager().isTitleEnabled()) {
-            String titleText = plugin.getConfigManager().getMessages()
-                .getString("titles.reward-received.title", "<gold><bold>REWARD RECEIVED!</bold></gold>");
-            String subtitleText = plugin.getConfigManager().getMessages()
-                .getString("titles.reward-received.subtitle", "<yellow>%reward_name%</yellow>");
-
-            subtitleText = subtitleText.replace("%reward_name%", reward.getDisplayName());
-
-            Component titleComponent = MessageUtil.toComponent(titleText);
-            Component subtitleComponent = MessageUtil.toComponent(subtitleText);
+            Component titleComponent = plugin.getConfigManager()
+                .getTemplate("titles.reward-received.title").render(null, reward.getDisplayComponent());
+            Component subtitleComponent = plugin.getConfigManager()
+                .getTemplate("titles.reward-received.subtitle").render(null, reward.getDisplayComponent());
 
             Title title = Title.title(
                 titleComponent,
                 subtitleComponent,
-                Title.Times.times(
-                    Duration.ofMillis(plugin.getConfigManager().getTitleFadeIn() * 50L),
-                    Duration.ofMillis(plugin.getConfigManager().getTitleStay() * 50L),
-                    Duration.ofMillis(plugin.getConfigManager().getTitleFadeOut() * 50L)
-                )
+                plugin.getConfigManager().getTitleTimes()
             );
 
             player.showTitle(title);
         }
 
         // Send chat message
-        String message = plugin.getConfigManager().getMessage("reward-received");
-        String prefix = plugin.getConfigManager().getPrefix();
-        message = message.replace("%prefix%", prefix)
-            .replace("%reward_name%", reward.getDisplayName());
-        Component messageComponent = MessageUtil.toComponentWithPlaceholders(player, message);
+        Component messageComponent = plugin.getConfigManager().getTemplate("messages.reward-received")
+            .render(player, reward.getDisplayComponent());
         player.sendMessage(messageComponent);
 
-        // Play sound
-        if (plugin.getConfigManager().isSoundEnabled()) {
-            try {
-                String soundType = plugin.getConfigManager().getSoundType();
-                // Convert legacy sound name to namespaced key format
-                String soundKey = soundType.toLowerCase().replace("_", ".");
-                if (!soundKey.contains(":")) {
-                    soundKey = "minecraft:" + soundKey;
-                }
-
-                Sound sound = Sound.sound(
-                    Key.key(soundKey),
-                    Sound.Source.PLAYER,
-                    plugin.getConfigManager().getSoundVolume(),
-                    plugin.getConfigManager().getSoundPitch()
-                );
-                player.playSound(sound);
-            } catch (Exception e) {
-                plugin.getLogger().warning("Invalid sound type: " + plugin.getConfigManager().getSoundType());
-            }
+        // Play sound (resolved at config load)
+        Sound sound = plugin.getConfigManager().getRewardSound();
+        if (sound != null) {
+            player.playSound(sound);
         }
 
-        // Spawn particles
-        if (plugin.getConfigManager().isParticlesEnabled()) {
-            try {
-                Particle particle = Particle.valueOf(plugin.getConfigManager().getParticleType());
-                player.getWorld().spawnParticle(
-                    particle,
-                    player.getLocation().add(0, 1, 0),
-                    plugin.getConfigManager().getParticleCount(),
-                    plugin.getConfigManager().getParticleSpread(),
-                    plugin.getConfigManager().getParticleSpread(),
-                    plugin.getConfigManager().getParticleSpread()
-                );
-            } catch (IllegalArgumentException e) {
-                plugin.getLogger().warning("Invalid particle type: " + plugin.getConfigManager().getParticleType());
-            }
+        // Spawn particles (resolved at config load)
+        Particle particle = plugin.getConfigManager().getRewardParticle();
+        if (particle != null) {
+            double spread = plugin.getConfigManager().getParticleSpread();
+            player.getWorld().spawnParticle(
+                particle,
+                player.getLocation().add(0, 1, 0),
+                plugin.getConfigManager().getParticleCount(),
+                spread,
+                spread,
+                spread
+            );
         }
 
         if (plugin.getConfigManager().isDebug()) {
@@ -186,36 +255,7 @@ public class RewardManager {
      * @param reward The reward
      */
     private void grantItemReward(Player player, Reward reward) {
-        ItemBuilder builder = new ItemBuilder(reward.getMaterial());
-        builder.amount(reward.getAmount());
-
-        if (reward.getItemName() != null) {
-            builder.name(reward.getItemName());
-        }
-
-        if (reward.getLore() != null && !reward.getLore().isEmpty()) {
-            builder.lore(reward.getLore());
-        }
-
-        if (reward.isGlow()) {
-            builder.glow();
-        }
-
-        if (reward.getEnchantments() != null) {
-            for (Reward.EnchantmentData enchData : reward.getEnchantments()) {
-                builder.enchant(enchData.getEnchantment(), enchData.getLevel());
-            }
-        }
-
-        if (reward.getFlags() != null && !reward.getFlags().isEmpty()) {
-            builder.flags(reward.getFlags().toArray(new ItemFlag[0]));
-        }
-
-        if (reward.getCustomModelData() != null) {
-            builder.customModelData(reward.getCustomModelData());
-        }
-
-        ItemStack item = builder.build();
+        ItemStack item = reward.createItem();
 
         // Try to add to inventory
         HashMap<Integer, ItemStack> leftover = player.getInventory().addItem(item);
@@ -226,10 +266,7 @@ public class RewardManager {
                 player.getWorld().dropItem(player.getLocation(), drop);
             }
 
-            String message = plugin.getConfigManager().getMessage("inventory-full");
-            String prefix = plugin.getConfigManager().getPrefix();
-            message = message.replace("%prefix%", prefix);
-            Component messageComponent = MessageUtil.toComponentWithPlaceholders(player, message);
+            Component messageComponent = plugin.getConfigManager().getTemplate("messages.inventory-full").render(player);
             player.sendMessage(messageComponent);
         }
     }
@@ -261,24 +298,214 @@ public class RewardManager {
     }
 
     /**
-     * Check all players in AFK region for reward eligibility
+     * Grant rewards to every player whose reward deadline has passed
+     * Only due players are touched, so the cost scales with rewards due
      */
     public void checkAndGrantRewards() {
-        long rewardInterval = plugin.getConfigManager().getRewardInterval();
+        long now = System.currentTimeMillis();
+        List<AFKPlayer> due = new ArrayList<>();
 
-        for (AFKPlayer afkPlayer : plugin.getAFKManager().getPlayersInRegion()) {
+        synchronized (deadlines) {
+            while (!deadlines.isEmpty() && deadlines.peek().getTime() <= now) {
+                RewardDeadline deadline = deadlines.poll();
+                AFKPlayer afkPlayer = deadline.getAfkPlayer();
+
+                // Superseded, or cancelled by leaving the zone
+                if (afkPlayer.getRewardDeadline() != deadline.getTime()) {
+                    continue;
+                }
+
+                afkPlayer.setRewardDeadline(0);
+                due.add(afkPlayer);
+            }
+        }
+
+        // Plan every grant here, grouped by the region section owning the player
+        Map<SectionKey, List<PlannedGrant>> batches = new LinkedHashMap<>();
+
+        for (AFKPlayer afkPlayer : due) {
             Player player = Bukkit.getPlayer(afkPlayer.getUuid());
 
             if (player == null || !player.isOnline()) {
                 continue;
             }
 
-            if (afkPlayer.isEligibleForReward(rewardInterval)) {
-                Reward reward = selectReward(player);
-                if (reward != null) {
-                    grantReward(player, reward);
+            Zone zone = plugin.getConfigManager().getZone(afkPlayer.getZoneId());
+            long rewardInterval = zone != null ? zone.getRewardInterval() : plugin.getConfigManager().getRewardInterval();
+
+            // Left the zone or turned rewards off; /afkzone toggle schedules again on re-enable
+            if (!afkPlayer.isInRegion() || afkPlayer.isRewardsDisabled()) {
+                continue;
+            }
+
+            if (!afkPlayer.isEligibleForReward(rewardInterval)) {
+                // Not due yet, e.g. the last reward moved since this deadline was queued
+                scheduleReward(afkPlayer);
+                continue;
+            }
+
+            Reward reward = selectReward(player, zone);
+            if (reward == null) {
+                // Nothing to give right now, try again after another interval
+                scheduleReward(afkPlayer, now + rewardInterval);
+                continue;
+            }
+
+            PlannedGrant grant = new PlannedGrant(player, afkPlayer, afkPlayer.getZoneId(), reward);
+            UUID worldId = afkPlayer.getLastWorldId();
+
+            if (worldId == null) {
+                // Position never observed, let the entity scheduler route it
+                FoliaScheduler.runEntity(plugin, player, () -> deliver(grant));
+                continue;
+            }
+
+            SectionKey key = new SectionKey(worldId,
+                afkPlayer.getLastChunkX() >> SECTION_SHIFT, afkPlayer.getLastChunkZ() >> SECTION_SHIFT);
+            batches.computeIfAbsent(key, k -> new ArrayList<>()).add(grant);
+        }
+
+        // One task per section, staggered so a busy second does not land on a single tick
+        int index = 0;
+        for (Map.Entry<SectionKey, List<PlannedGrant>> batch : batches.entrySet()) {
+            World world = Bukkit.getWorld(batch.getKey().getWorldId());
+            List<PlannedGrant> grants = batch.getValue();
+
+            if (world == null) {
+                for (PlannedGrant grant : grants) {
+                    FoliaScheduler.runEntity(plugin, grant.getPlayer(), () -> deliver(grant));
                 }
+                continue;
             }
+
+            // Anchor on a member's chunk; regions may have merged beyond the section
+            AFKPlayer anchor = grants.get(0).getAfkPlayer();
+            long delay = 1L + (index++ % BATCH_SPREAD_TICKS);
+            FoliaScheduler.runRegionDelayed(plugin, world, anchor.getLastChunkX(), anchor.getLastChunkZ(),
+                () -> deliverBatch(grants), delay);
+        }
+    }
+
+    /**
+     * Deliver a batch of grants on the region thread that owns their section
+     * Players that moved to another region meanwhile are handed to their entity scheduler
+     * @param grants The planned grants
+     */
+    private void deliverBatch(List<PlannedGrant> grants) {
+        for (PlannedGrant grant : grants) {
+            Player player = grant.getPlayer();
+            if (!player.isOnline()) {
+                continue;
+            }
+
+            if (Bukkit.isOwnedByCurrentRegion(player)) {
+                deliver(grant);
+            } else {
+                FoliaScheduler.runEntity(plugin, player, () -> deliver(grant));
+            }
+        }
+    }
+
+    /**
+     * Deliver a single planned grant on the player's owning thread
+     * The grant is dropped if the player left or changed zone since it was planned
+     * @param grant The planned grant
+     */
+    private void deliver(PlannedGrant grant) {
+        AFKPlayer afkPlayer = grant.getAfkPlayer();
+
+        // A new deadline means the player re-entered a zone and was rescheduled
+        if (!afkPlayer.isInRegion() || afkPlayer.getRewardDeadline() != 0
+            || !Objects.equals(afkPlayer.getZoneId(), grant.getZoneId())) {
+            return;
+        }
+
+        grantReward(grant.getPlayer(), grant.getReward());
+    }
+
+    /**
+     * A reward selected for a player, awaiting delivery on its region thread
+     */
+    private static final class PlannedGrant {
+        private final Player player;
+        private final AFKPlayer afkPlayer;
+        private final String zoneId;
+        private final Reward reward;
+
+        private PlannedGrant(Player player, AFKPlayer afkPlayer, String zoneId, Reward reward) {
+            this.player = player;
+            this.afkPlayer = afkPlayer;
+            this.zoneId = zoneId;
+            this.reward = reward;
+        }
+
+        private Player getPlayer() {
+            return player;
+        }
+
+        private AFKPlayer getAfkPlayer() {
+            return afkPlayer;
+        }
+
+        private String getZoneId() {
+            return zoneId;
+        }
+
+        private Reward getReward() {
+            return reward;
+        }
+    }
+
+    /**
+     * A world and region section coordinate used to batch grants
+     */
+    private static final class SectionKey {
+        private final UUID worldId;
+        private final int sectionX;
+        private final int sectionZ;
+
+        private SectionKey(UUID worldId, int sectionX, int sectionZ) {
+            this.worldId = worldId;
+            this.sectionX = sectionX;
+            this.sectionZ = sectionZ;
+        }
+
+        private UUID getWorldId() {
+            return worldId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SectionKey)) return false;
+            SectionKey other = (SectionKey) o;
+            return sectionX == other.sectionX && sectionZ == other.sectionZ && worldId.equals(other.worldId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * worldId.hashCode() + sectionX) + sectionZ;
+        }
+    }
+
+    /**
+     * A queued reward deadline for a player
+     */
+    private static final class RewardDeadline {
+        private final long time;
+        private final AFKPlayer afkPlayer;
+
+        private RewardDeadline(long time, AFKPlayer afkPlayer) {
+            this.time = time;
+            this.afkPlayer = afkPlayer;
+        }
+
+        private long getTime() {
+            return time;
+        }
+
+        private AFKPlayer getAfkPlayer() {
+            return afkPlayer;
         }
     }
 }
@@ -0,0 +1,132 @@
+package dev.alone.aFKZone.manager;
+
+import dev.alone.aFKZone.data.Zone;
+import dev.alone.aFKZone.data.ZoneShape;
+import dev.alone.aFKZone.util.ChunkClassMap;
+import dev.alone.aFKZone.util.LongObjectMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable grid index over the zone shapes of a single world
+ * A lookup only tests the few zones whose bounds overlap the point's grid cell
+ */
+public final class ZoneIndex {
+
+    // 128x128 block cells
+    private static final int CELL_SHIFT = 7;
+
+    // Zones covering more cells than this are tested on every lookup instead
+    private static final int MAX_CELLS_PER_ZONE = 1024;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Comparator<Entry> BY_PRIORITY =
+        Comparator.comparingInt((Entry entry) -> entry.zone.getPriority()).reversed();
+
+    private final LongObjectMap<Entry[]> cells;
+    private final Entry[] oversized;
+    private final int zoneCount;
+
+    /**
+     * Build an index over a set of zone shapes
+     * @param entries The zones and their shapes in this world
+     */
+    public ZoneIndex(List<Entry> entries) {
+        Map<Long, List<Entry>> grid = new HashMap<>();
+        List<Entry> large = new ArrayList<>();
+
+        for (Entry entry : entries) {
+            ZoneShape shape = entry.shape;
+            int minCellX = shape.getMinX() >> CELL_SHIFT;
+            int minCellZ = shape.getMinZ() >> CELL_SHIFT;
+            int maxCellX = shape.getMaxX() >> CELL_SHIFT;
+            int maxCellZ = shape.getMaxZ() >> CELL_SHIFT;
+
+            long cellCount = (long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1);
+            if (cellCount > MAX_CELLS_PER_ZONE) {
+                large.add(entry);
+                continue;
+            }
+
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                    grid.computeIfAbsent(ChunkClassMap.key(cellX, cellZ), key -> new ArrayList<>()).add(entry);
+                }
+            }
+        }
+
+        this.cells = new LongObjectMap<>(grid.size());
+        for (Map.Entry<Long, List<Entry>> cell : grid.entrySet()) {
+            List<Entry> candidates = cell.getValue();
+            candidates.sort(BY_PRIORITY);
+            cells.put(cell.getKey(), candidates.toArray(NO_ENTRIES));
+        }
+
+        large.sort(BY_PRIORITY);
+        this.oversized = large.toArray(NO_ENTRIES);
+        this.zoneCount = entries.size();
+    }
+
+    /**
+     * Find the highest priority zone containing a block
+     * @param x Block X
+     * @param y Block Y
+     * @param z Block Z
+     * @return The zone, or null if the block is in no zone
+     */
+    public Zone find(int x, int y, int z) {
+        Entry[] candidates = cells.get(ChunkClassMap.key(x >> CELL_SHIFT, z >> CELL_SHIFT));
+        Zone best = candidates != null ? firstMatch(candidates, x, y, z) : null;
+
+        if (oversized.length > 0) {
+            Zone large = firstMatch(oversized, x, y, z);
+            if (large != null && (best == null || large.getPriority() > best.getPriority())) {
+                best = large;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Get the number of indexed zones
+     * @return Zone count
+     */
+    public int getZoneCount() {
+        return zoneCount;
+    }
+
+    private static Zone firstMatch(Entry[] entries, int x, int y, int z) {
+        for (Entry entry : entries) {
+            if (entry.shape.contains(x, y, z)) {
+                return entry.zone;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A zone paired with its shape in this world
+     */
+    public static final class Entry {
+        private final Zone zone;
+        private final ZoneShape shape;
+
+        public Entry(Zone zone, ZoneShape shape) {
+            this.zone = zone;
+            this.shape = shape;
+        }
+
+        public Zone getZone() {
+            return zone;
+        }
+
+        public ZoneShape getShape() {
+            return shape;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package dev.alone.aFKZone.placeholder;
 
 import dev.alone.aFKZone.AFKZone;
 import dev.alone.aFKZone.data.AFKPlayer;
+import dev.alone.aFKZone.data.Zone;
 import dev.alone.aFKZone.util.MessageUtil;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.entity.Player;
@@ -63,7 +64,7 @@ public class AFKPlaceholder extends PlaceholderExpansion {
             case "time_remaining":
                 long currentTime = System.currentTimeMillis();
                 long timeSinceLastReward = currentTime - afkPlayer.getLastRewardTime();
-                long rewardInterval = plugin.getConfigManager().getRewardInterval();
+                long rewardInterval = plugin.getConfigManager().getRewardInterval(afkPlayer.getZoneId());
                 long timeRemaining = Math.max(0, rewardInterval - timeSinceLastReward);
                 return MessageUtil.formatTime(timeRemaining);
 
@@ -82,6 +83,13 @@ public class AFKPlaceholder extends PlaceholderExpansion {
             case "total_afk_time":
                 return MessageUtil.formatTime(afkPlayer.getTotalAFKTime());
 
+            case "reward_tier":
+                Zone zone = plugin.getConfigManager().getZone(afkPlayer.getZoneId());
+                return plugin.getRewardManager().getPoolName(afkPlayer, zone).toUpperCase();
+
+            case "zone":
+                return afkPlayer.getZoneId() != null ? afkPlayer.getZoneId() : "None";
+
             case "rewards_disabled":
                 return afkPlayer.isRewardsDisabled() ? "Yes" : "No";
 
@@ -0,0 +1,387 @@
+package dev.alone.aFKZone.storage;
+
+import dev.alone.aFKZone.data.AFKPlayer;
+import dev.alone.aFKZone.data.PlayerSummary;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stores every player in one file of fixed-width 256 byte records
+ * An in-memory UUID to slot index makes loads and saves a single positional
+ * read or write; records are updated in place and deleted slots are reused
+ */
+public class BinaryPlayerStorage implements PlayerStorage {
+
+    private static final int MAGIC = 0x41464B5A; // "AFKZ"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 256;
+
+    // Slots read per block while building the index
+    private static final int SCAN_BLOCK_RECORDS = 256;
+
+    // Fixed-width stats
+    private static final int OFF_UUID_MOST = 0;
+    private static final int OFF_UUID_LEAST = 8;
+    private static final int OFF_TOTAL_AFK_TIME = 16;
+    private static final int OFF_LAST_REWARD_TIME = 24;
+    private static final int OFF_TOTAL_REWARDS = 32;
+    private static final int OFF_FLAGS = 36;
+
+    // Variable data area: u8 length + bytes
+    private static final int OFF_NAME = 40;
+    private static final int NAME_BYTES = 16;
+
+    // u8 count, then per type: u8 length + name bytes + i32 count
+    private static final int OFF_COUNTERS = 64;
+    private static final int MAX_COUNTERS = 4;
+    private static final int COUNTER_NAME_BYTES = 15;
+    private static final int COUNTER_SIZE = 1 + COUNTER_NAME_BYTES + 4;
+
+    // u16 length + bytes, to the end of the record
+    private static final int OFF_LAST_REWARD = 152;
+    private static final int LAST_REWARD_BYTES = RECORD_SIZE - OFF_LAST_REWARD - 2;
+
+    private static final byte FLAG_USED = 1;
+    private static final byte FLAG_REWARDS_DISABLED = 2;
+
+    private final File file;
+    private final Map<UUID, Integer> slots;
+    private final ArrayDeque<Integer> freeSlots;
+    private FileChannel channel;
+
+    // Slots whose records have been written; scans never read past this
+    private int slotCount;
+
+    // Next slot past the end to hand out; ahead of slotCount while a new record is being written
+    private int nextSlot;
+
+    /**
+     * Create a new BinaryPlayerStorage
+     * @param file The store file
+     */
+    public BinaryPlayerStorage(File file) {
+        this.file = file;
+        this.slots = new HashMap<>();
+        this.freeSlots = new ArrayDeque<>();
+    }
+
+    @Override
+    public synchronized void open() throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+
+        channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(RECORD_SIZE).putInt(0).flip();
+            writeFully(header, 0);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION || header.getInt() != RECORD_SIZE) {
+                throw new IOException(file + " is not a compatible player store");
+            }
+        }
+
+        buildIndex();
+    }
+
+    /**
+     * Scan every record once to build the UUID to slot index
+     */
+    private void buildIndex() throws IOException {
+        slots.clear();
+        freeSlots.clear();
+        slotCount = (int) ((channel.size() - HEADER_SIZE) / RECORD_SIZE);
+        nextSlot = slotCount;
+
+        ByteBuffer block = ByteBuffer.allocate(RECORD_SIZE * SCAN_BLOCK_RECORDS);
+        for (int first = 0; first < slotCount; first += SCAN_BLOCK_RECORDS) {
+            int count = Math.min(SCAN_BLOCK_RECORDS, slotCount - first);
+            block.clear().limit(count * RECORD_SIZE);
+            readFully(block, position(first));
+
+            for (int i = 0; i < count; i++) {
+                int base = i * RECORD_SIZE;
+                if ((block.get(base + OFF_FLAGS) & FLAG_USED) != 0) {
+                    UUID uuid = new UUID(block.getLong(base + OFF_UUID_MOST), block.getLong(base + OFF_UUID_LEAST));
+                    slots.put(uuid, first + i);
+                } else {
+                    freeSlots.add(first + i);
+                }
+            }
+        }
+    }
+
+    @Override
+    public AFKPlayer load(UUID uuid) throws IOException {
+        Integer slot;
+        synchronized (this) {
+            slot = slots.get(uuid);
+        }
+        if (slot == null) {
+            return null;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        readFully(record, position(slot));
+
+        // The slot may have been reused between the lookup and the read
+        if (record.getLong(OFF_UUID_MOST) != uuid.getMostSignificantBits()
+            || record.getLong(OFF_UUID_LEAST) != uuid.getLeastSignificantBits()
+            || (record.get(OFF_FLAGS) & FLAG_USED) == 0) {
+            return null;
+        }
+
+        return decode(uuid, record);
+    }
+
+    @Override
+    public void save(AFKPlayer afkPlayer) throws IOException {
+        UUID uuid = afkPlayer.getUuid();
+        ByteBuffer record = encode(afkPlayer);
+
+        Integer slot;
+        synchronized (this) {
+            slot = slots.get(uuid);
+        }
+        if (slot != null) {
+            writeFully(record, position(slot));
+            return;
+        }
+
+        // A new slot is only published once its record is on disk, so concurrent
+        // scans never read it early and a failed write leaves no mapping behind
+        int reserved = reserveSlot();
+        try {
+            writeFully(record, position(reserved));
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                freeSlots.add(reserved);
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            slots.put(uuid, reserved);
+            slotCount = Math.max(slotCount, reserved + 1);
+        }
+    }
+
+    @Override
+    public void saveBatch(List<AFKPlayer> afkPlayers) throws IOException {
+        for (AFKPlayer afkPlayer : afkPlayers) {
+            save(afkPlayer);
+        }
+        // One sync per batch rather than per record
+        channel.force(false);
+    }
+
+    @Override
+    public boolean delete(UUID uuid) throws IOException {
+        Integer slot;
+        synchronized (this) {
+            slot = slots.remove(uuid);
+        }
+        if (slot == null) {
+            return false;
+        }
+
+        ByteBuffer cleared = ByteBuffer.allocate(RECORD_SIZE);
+        writeFully(cleared, position(slot));
+
+        synchronized (this) {
+            freeSlots.add(slot);
+        }
+        return true;
+    }
+
+    @Override
+    public List<PlayerSummary> loadSummaries() throws IOException {
+        int slots;
+        synchronized (this) {
+            slots = slotCount;
+        }
+
+        // The totals sit at fixed offsets, so a sequential scan is the index
+        // Slots left by a failed write read as zeros and are skipped as unused
+        List<PlayerSummary> summaries = new ArrayList<>();
+        ByteBuffer block = ByteBuffer.allocate(RECORD_SIZE * SCAN_BLOCK_RECORDS);
+        for (int first = 0; first < slots; first += SCAN_BLOCK_RECORDS) {
+            int count = Math.min(SCAN_BLOCK_RECORDS, slots - first);
+            block.clear().limit(count * RECORD_SIZE);
+            readFully(block, position(first));
+
+            for (int i = 0; i < count; i++) {
+                int base = i * RECORD_SIZE;
+                if ((block.get(base + OFF_FLAGS) & FLAG_USED) == 0) {
+                    continue;
+                }
+                int nameLength = Math.min(NAME_BYTES, block.get(base + OFF_NAME) & 0xFF);
+                summaries.add(new PlayerSummary(
+                    new UUID(block.getLong(base + OFF_UUID_MOST), block.getLong(base + OFF_UUID_LEAST)),
+                    nameLength > 0 ? string(block, base + OFF_NAME + 1, nameLength) : "Unknown",
+                    block.getInt(base + OFF_TOTAL_REWARDS),
+                    block.getLong(base + OFF_TOTAL_AFK_TIME)
+                ));
+            }
+        }
+        return summaries;
+    }
+
+    @Override
+    public synchronized int count() {
+        return slots.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException ignored) {
+            // Nothing more can be done at shutdown
+        }
+        channel = null;
+    }
+
+    @Override
+    public String getName() {
+        return "BINARY";
+    }
+
+    /**
+     * Take a free slot for a new record, reusing deleted slots first
+     * The slot stays unpublished until the caller has written its record
+     * @return Slot index
+     */
+    private synchronized int reserveSlot() {
+        return freeSlots.isEmpty() ? nextSlot++ : freeSlots.poll();
+    }
+
+    private static long position(int slot) {
+        return HEADER_SIZE + (long) slot * RECORD_SIZE;
+    }
+
+    private static ByteBuffer encode(AFKPlayer afkPlayer) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+
+        record.putLong(OFF_UUID_MOST, afkPlayer.getUuid().getMostSignificantBits());
+        record.putLong(OFF_UUID_LEAST, afkPlayer.getUuid().getLeastSignificantBits());
+        record.putLong(OFF_TOTAL_AFK_TIME, afkPlayer.getTotalAFKTime());
+        record.putLong(OFF_LAST_REWARD_TIME, afkPlayer.getLastRewardTime());
+        record.putInt(OFF_TOTAL_REWARDS, afkPlayer.getTotalRewards());
+        record.put(OFF_FLAGS, (byte) (FLAG_USED | (afkPlayer.isRewardsDisabled() ? FLAG_REWARDS_DISABLED : 0)));
+
+        byte[] name = utf8(afkPlayer.getName());
+        int nameLength = truncatedLength(name, NAME_BYTES);
+        record.put(OFF_NAME, (byte) nameLength);
+        record.put(OFF_NAME + 1, name, 0, nameLength);
+
+        // Only the reward types (ITEM, COMMAND, EXPERIENCE) are counted, so MAX_COUNTERS is ample
+        int counters = 0;
+        for (Map.Entry<String, Integer> entry : afkPlayer.getRewardsByType().entrySet()) {
+            if (counters == MAX_COUNTERS) {
+                break;
+            }
+            int base = OFF_COUNTERS + 1 + counters * COUNTER_SIZE;
+            byte[] type = utf8(entry.getKey());
+            int typeLength = truncatedLength(type, COUNTER_NAME_BYTES);
+            record.put(base, (byte) typeLength);
+            record.put(base + 1, type, 0, typeLength);
+            record.putInt(base + 1 + COUNTER_NAME_BYTES, entry.getValue());
+            counters++;
+        }
+        record.put(OFF_COUNTERS, (byte) counters);
+
+        byte[] lastReward = utf8(afkPlayer.getLastRewardName());
+        int lastRewardLength = truncatedLength(lastReward, LAST_REWARD_BYTES);
+        record.putShort(OFF_LAST_REWARD, (short) lastRewardLength);
+        record.put(OFF_LAST_REWARD + 2, lastReward, 0, lastRewardLength);
+
+        return record;
+    }
+
+    private static AFKPlayer decode(UUID uuid, ByteBuffer record) {
+        AFKPlayer afkPlayer = new AFKPlayer(uuid);
+
+        int nameLength = record.get(OFF_NAME) & 0xFF;
+        afkPlayer.setName(nameLength > 0 ? string(record, OFF_NAME + 1, nameLength) : "Unknown");
+        afkPlayer.setTotalAFKTime(record.getLong(OFF_TOTAL_AFK_TIME));
+        afkPlayer.setTotalRewards(record.getInt(OFF_TOTAL_REWARDS));
+        afkPlayer.setLastRewardTime(record.getLong(OFF_LAST_REWARD_TIME));
+
+        int lastRewardLength = record.getShort(OFF_LAST_REWARD) & 0xFFFF;
+        afkPlayer.setLastRewardName(lastRewardLength > 0 ? string(record, OFF_LAST_REWARD + 2, lastRewardLength) : "None");
+        afkPlayer.setRewardsDisabled((record.get(OFF_FLAGS) & FLAG_REWARDS_DISABLED) != 0);
+
+        int counters = Math.min(MAX_COUNTERS, record.get(OFF_COUNTERS) & 0xFF);
+        for (int i = 0; i < counters; i++) {
+            int base = OFF_COUNTERS + 1 + i * COUNTER_SIZE;
+            String type = string(record, base + 1, record.get(base) & 0xFF);
+            afkPlayer.setRewardTypeCount(type, record.getInt(base + 1 + COUNTER_NAME_BYTES));
+        }
+
+        return afkPlayer;
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    private static String string(ByteBuffer record, int offset, int length) {
+        byte[] bytes = new byte[length];
+        record.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Length of the longest prefix that fits and does not split a UTF-8 character
+     */
+    private static int truncatedLength(byte[] bytes, int max) {
+        if (bytes.length <= max) {
+            return bytes.length;
+        }
+        int length = max;
+        while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return length;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of " + file);
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+}
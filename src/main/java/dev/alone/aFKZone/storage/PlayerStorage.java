@@ -0,0 +1,82 @@
+package dev.alone.aFKZone.storage;
+
+import dev.alone.aFKZone.data.AFKPlayer;
+import dev.alone.aFKZone.data.PlayerSummary;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Backend that persists AFK player data
+ * Implementations are called from the DataManager writer thread and from
+ * async load tasks, so they must be safe for concurrent use
+ */
+public interface PlayerStorage {
+
+    /**
+     * Open the storage (create files, tables or indexes as needed)
+     * @throws IOException if the storage cannot be opened
+     */
+    void open() throws IOException;
+
+    /**
+     * Load a player's data
+     * @param uuid The player's UUID
+     * @return The loaded AFKPlayer, or null if none is stored
+     * @throws IOException if the data cannot be read
+     */
+    AFKPlayer load(UUID uuid) throws IOException;
+
+    /**
+     * Save a player's data
+     * @param afkPlayer The AFKPlayer to save
+     * @throws IOException if the data cannot be written
+     */
+    void save(AFKPlayer afkPlayer) throws IOException;
+
+    /**
+     * Save several players at once
+     * Backends that can group writes should override this
+     * @param afkPlayers The players to save
+     * @throws IOException if the data cannot be written
+     */
+    default void saveBatch(List<AFKPlayer> afkPlayers) throws IOException {
+        for (AFKPlayer afkPlayer : afkPlayers) {
+            save(afkPlayer);
+        }
+    }
+
+    /**
+     * Delete a player's data
+     * @param uuid The player's UUID
+     * @return true if data was deleted
+     * @throws IOException if the data cannot be deleted
+     */
+    boolean delete(UUID uuid) throws IOException;
+
+    /**
+     * Get the number of stored players
+     * @return Stored player count
+     */
+    int count();
+
+    /**
+     * Load the leaderboard totals of every stored player
+     * Reads the backend's aggregate index, never the full player records
+     * @return One summary per stored player
+     * @throws IOException if the index cannot be read
+     */
+    List<PlayerSummary> loadSummaries() throws IOException;
+
+    /**
+     * Close the storage, releasing files and connections
+     */
+    void close();
+
+    /**
+     * Get a short name for this backend
+     * @return Backend name
+     */
+    String getName();
+}
@@ -0,0 +1,270 @@
+package dev.alone.aFKZone.storage;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import dev.alone.aFKZone.data.AFKPlayer;
+import dev.alone.aFKZone.data.PlayerSummary;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stores players in an embedded SQLite database through a HikariCP pool
+ * Batches are written as one transaction; leaderboard totals are read
+ * with a single narrow query over the player table
+ */
+public class SqlitePlayerStorage implements PlayerStorage {
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS afk_players ("
+            + "uuid TEXT PRIMARY KEY, "
+            + "name TEXT NOT NULL, "
+            + "total_afk_time INTEGER NOT NULL DEFAULT 0, "
+            + "total_rewards INTEGER NOT NULL DEFAULT 0, "
+            + "last_reward_time INTEGER NOT NULL DEFAULT 0, "
+            + "last_reward_name TEXT NOT NULL DEFAULT 'None', "
+            + "rewards_disabled INTEGER NOT NULL DEFAULT 0)",
+        "CREATE TABLE IF NOT EXISTS afk_reward_types ("
+            + "uuid TEXT NOT NULL, "
+            + "type TEXT NOT NULL, "
+            + "count INTEGER NOT NULL, "
+            + "PRIMARY KEY (uuid, type))",
+        // Leaderboards are ranked in memory now; these only slowed every upsert on older databases
+        "DROP INDEX IF EXISTS idx_afk_players_rewards",
+        "DROP INDEX IF EXISTS idx_afk_players_time"
+    };
+
+    private static final String UPSERT_PLAYER =
+        "INSERT INTO afk_players (uuid, name, total_afk_time, total_rewards, last_reward_time, last_reward_name, rewards_disabled) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT(uuid) DO UPDATE SET "
+            + "name = excluded.name, "
+            + "total_afk_time = excluded.total_afk_time, "
+            + "total_rewards = excluded.total_rewards, "
+            + "last_reward_time = excluded.last_reward_time, "
+            + "last_reward_name = excluded.last_reward_name, "
+            + "rewards_disabled = excluded.rewards_disabled";
+
+    private static final String DELETE_TYPES = "DELETE FROM afk_reward_types WHERE uuid = ?";
+    private static final String INSERT_TYPE = "INSERT INTO afk_reward_types (uuid, type, count) VALUES (?, ?, ?)";
+    private static final String SELECT_PLAYER = "SELECT * FROM afk_players WHERE uuid = ?";
+    private static final String SELECT_TYPES = "SELECT type, count FROM afk_reward_types WHERE uuid = ?";
+    private static final String DELETE_PLAYER = "DELETE FROM afk_players WHERE uuid = ?";
+    private static final String COUNT_PLAYERS = "SELECT COUNT(*) FROM afk_players";
+    private static final String SELECT_SUMMARIES = "SELECT uuid, name, total_rewards, total_afk_time FROM afk_players";
+
+    private final File file;
+    private final int poolSize;
+    private HikariDataSource dataSource;
+
+    /**
+     * Create a new SqlitePlayerStorage
+     * @param file The database file
+     * @param poolSize Maximum pooled connections
+     */
+    public SqlitePlayerStorage(File file, int poolSize) {
+        this.file = file;
+        this.poolSize = Math.max(1, poolSize);
+    }
+
+    @Override
+    public void open() throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("AFKZone-SQLite");
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setJdbcUrl("jdbc:sqlite:" + file.getAbsolutePath());
+        config.setMaximumPoolSize(poolSize);
+        // WAL lets the pooled readers run while the writer thread commits
+        config.addDataSourceProperty("journal_mode", "WAL");
+        config.addDataSourceProperty("synchronous", "NORMAL");
+        config.addDataSourceProperty("busy_timeout", "5000");
+
+        try {
+            dataSource = new HikariDataSource(config);
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                for (String sql : SCHEMA) {
+                    statement.execute(sql);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            close();
+            throw new IOException("Could not open " + file, e);
+        }
+    }
+
+    @Override
+    public AFKPlayer load(UUID uuid) throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            AFKPlayer afkPlayer;
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_PLAYER)) {
+                statement.setString(1, uuid.toString());
+                try (ResultSet result = statement.executeQuery()) {
+                    if (!result.next()) {
+                        return null;
+                    }
+                    afkPlayer = readPlayer(result);
+                }
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_TYPES)) {
+                statement.setString(1, uuid.toString());
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        afkPlayer.setRewardTypeCount(result.getString("type"), result.getInt("count"));
+                    }
+                }
+            }
+
+            return afkPlayer;
+        } catch (SQLException e) {
+            throw new IOException("Could not load " + uuid, e);
+        }
+    }
+
+    @Override
+    public void save(AFKPlayer afkPlayer) throws IOException {
+        saveBatch(Collections.singletonList(afkPlayer));
+    }
+
+    @Override
+    public void saveBatch(List<AFKPlayer> afkPlayers) throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement upsertPlayer = connection.prepareStatement(UPSERT_PLAYER);
+                 PreparedStatement deleteTypes = connection.prepareStatement(DELETE_TYPES);
+                 PreparedStatement insertType = connection.prepareStatement(INSERT_TYPE)) {
+
+                for (AFKPlayer afkPlayer : afkPlayers) {
+                    String uuid = afkPlayer.getUuid().toString();
+
+                    upsertPlayer.setString(1, uuid);
+                    upsertPlayer.setString(2, afkPlayer.getName() != null ? afkPlayer.getName() : "Unknown");
+                    upsertPlayer.setLong(3, afkPlayer.getTotalAFKTime());
+                    upsertPlayer.setInt(4, afkPlayer.getTotalRewards());
+                    upsertPlayer.setLong(5, afkPlayer.getLastRewardTime());
+                    upsertPlayer.setString(6, afkPlayer.getLastRewardName() != null ? afkPlayer.getLastRewardName() : "None");
+                    upsertPlayer.setInt(7, afkPlayer.isRewardsDisabled() ? 1 : 0);
+                    upsertPlayer.addBatch();
+
+                    // Counters are replaced as a whole, since a reset clears them
+                    deleteTypes.setString(1, uuid);
+                    deleteTypes.addBatch();
+                    for (Map.Entry<String, Integer> entry : afkPlayer.getRewardsByType().entrySet()) {
+                        insertType.setString(1, uuid);
+                        insertType.setString(2, entry.getKey());
+                        insertType.setInt(3, entry.getValue());
+                        insertType.addBatch();
+                    }
+                }
+
+                upsertPlayer.executeBatch();
+                deleteTypes.executeBatch();
+                insertType.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not save " + afkPlayers.size() + " players", e);
+        }
+    }
+
+    @Override
+    public boolean delete(UUID uuid) throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement deletePlayer = connection.prepareStatement(DELETE_PLAYER);
+                 PreparedStatement deleteTypes = connection.prepareStatement(DELETE_TYPES)) {
+                deletePlayer.setString(1, uuid.toString());
+                deleteTypes.setString(1, uuid.toString());
+                boolean deleted = deletePlayer.executeUpdate() > 0;
+                deleteTypes.executeUpdate();
+                connection.commit();
+                return deleted;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not delete " + uuid, e);
+        }
+    }
+
+    @Override
+    public int count() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(COUNT_PLAYERS)) {
+            return result.next() ? result.getInt(1) : 0;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public List<PlayerSummary> loadSummaries() throws IOException {
+        List<PlayerSummary> summaries = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(SELECT_SUMMARIES)) {
+            while (result.next()) {
+                summaries.add(new PlayerSummary(
+                    UUID.fromString(result.getString("uuid")),
+                    result.getString("name"),
+                    result.getInt("total_rewards"),
+                    result.getLong("total_afk_time")
+                ));
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not load player summaries", e);
+        }
+
+        return summaries;
+    }
+
+    @Override
+    public void close() {
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "SQLITE";
+    }
+
+    private static AFKPlayer readPlayer(ResultSet result) throws SQLException {
+        AFKPlayer afkPlayer = new AFKPlayer(UUID.fromString(result.getString("uuid")));
+        afkPlayer.setName(result.getString("name"));
+        afkPlayer.setTotalAFKTime(result.getLong("total_afk_time"));
+        afkPlayer.setTotalRewards(result.getInt("total_rewards"));
+        afkPlayer.setLastRewardTime(result.getLong("last_reward_time"));
+        afkPlayer.setLastRewardName(result.getString("last_reward_name"));
+        afkPlayer.setRewardsDisabled(result.getInt("rewards_disabled") != 0);
+        return afkPlayer;
+    }
+}
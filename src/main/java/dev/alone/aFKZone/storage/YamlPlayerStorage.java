@@ -0,0 +1,343 @@
+package dev.alone.aFKZone.storage;
+
+import dev.alone.aFKZone.data.AFKPlayer;
+import dev.alone.aFKZone.data.PlayerSummary;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Stores each player in its own data/players/<uuid>.yml file
+ * Leaderboard totals are also appended to a compact index file on every
+ * save, so they can be loaded without parsing each player file
+ * Index records: type byte, UUID, then for a put the totals and a
+ * length-prefixed UTF-8 name
+ */
+public class YamlPlayerStorage implements PlayerStorage {
+
+    private static final byte INDEX_PUT = 1;
+    private static final byte INDEX_DELETE = 2;
+
+    // Records allowed beyond the live entries before the index is rewritten
+    private static final int INDEX_COMPACT_SLACK = 1024;
+
+    // Player files parsed between progress messages while building the index
+    private static final int REBUILD_LOG_INTERVAL = 10000;
+
+    private final File dataFolder;
+    private final File indexFile;
+    private final Logger logger;
+
+    // Append-only index of (uuid, name, totals); the last record per UUID wins
+    private DataOutputStream indexOut;
+    private int indexRecords;
+
+    // Length of the index up to the end of its last complete record, set by readIndex
+    private long indexValidLength;
+
+    /**
+     * Create a new YamlPlayerStorage
+     * @param dataFolder The folder holding the player files
+     * @param indexFile The leaderboard index file
+     * @param logger Logger for index rebuild progress
+     */
+    public YamlPlayerStorage(File dataFolder, File indexFile, Logger logger) {
+        this.dataFolder = dataFolder;
+        this.indexFile = indexFile;
+        this.logger = logger;
+    }
+
+    @Override
+    public synchronized void open() throws IOException {
+        // Create data folder if it doesn't exist
+        if (!dataFolder.exists() && !dataFolder.mkdirs()) {
+            throw new IOException("Could not create " + dataFolder);
+        }
+
+        if (!indexFile.exists()) {
+            // Written to a temporary file and moved into place, so a partial build is never mistaken for a complete one
+            rebuildIndex();
+        } else {
+            // Drop a record torn by a crash, so appends continue from a record boundary
+            readIndex();
+            if (indexValidLength < indexFile.length()) {
+                try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(indexValidLength);
+                }
+                logger.warning("Discarded a damaged tail of " + indexFile.getName());
+            }
+        }
+
+        indexOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile, true)));
+    }
+
+    /**
+     * Build the index from the player files, for data saved before the index existed
+     */
+    private void rebuildIndex() throws IOException {
+        List<UUID> uuids = listStored();
+        if (!uuids.isEmpty()) {
+            logger.info("Building the leaderboard index from " + uuids.size() + " player files...");
+        }
+
+        List<PlayerSummary> summaries = new ArrayList<>(uuids.size());
+        int parsed = 0;
+        for (UUID uuid : uuids) {
+            AFKPlayer afkPlayer = load(uuid);
+            if (afkPlayer != null) {
+                summaries.add(PlayerSummary.of(afkPlayer));
+            }
+            if (++parsed % REBUILD_LOG_INTERVAL == 0) {
+                logger.info("Indexed " + parsed + " / " + uuids.size() + " players");
+            }
+        }
+
+        writeIndexFile(summaries);
+        indexRecords = summaries.size();
+    }
+
+    @Override
+    public AFKPlayer load(UUID uuid) {
+        File playerFile = new File(dataFolder, uuid.toString() + ".yml");
+
+        if (!playerFile.exists()) {
+            return null;
+        }
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(playerFile);
+
+        AFKPlayer afkPlayer = new AFKPlayer(uuid);
+        afkPlayer.setName(config.getString("name", "Unknown"));
+        afkPlayer.setTotalAFKTime(config.getLong("total-afk-time", 0));
+        afkPlayer.setTotalRewards(config.getInt("total-rewards", 0));
+        afkPlayer.setLastRewardTime(config.getLong("last-reward-time", 0));
+        afkPlayer.setLastRewardName(config.getString("last-reward-name", "None"));
+        afkPlayer.setRewardsDisabled(config.getBoolean("rewards-disabled", false));
+
+        // Load rewards by type
+        ConfigurationSection byType = config.getConfigurationSection("rewards-by-type");
+        if (byType != null) {
+            for (String type : byType.getKeys(false)) {
+                int count = byType.getInt(type, 0);
+                if (count > 0) {
+                    afkPlayer.setRewardTypeCount(type, count);
+                }
+            }
+        }
+
+        return afkPlayer;
+    }
+
+    @Override
+    public void save(AFKPlayer afkPlayer) throws IOException {
+        writePlayer(afkPlayer);
+        synchronized (this) {
+            appendSummary(afkPlayer);
+            indexOut.flush();
+        }
+    }
+
+    @Override
+    public void saveBatch(List<AFKPlayer> afkPlayers) throws IOException {
+        for (AFKPlayer afkPlayer : afkPlayers) {
+            writePlayer(afkPlayer);
+        }
+        synchronized (this) {
+            for (AFKPlayer afkPlayer : afkPlayers) {
+                appendSummary(afkPlayer);
+            }
+            indexOut.flush();
+        }
+    }
+
+    private void writePlayer(AFKPlayer afkPlayer) throws IOException {
+        File playerFile = new File(dataFolder, afkPlayer.getUuid().toString() + ".yml");
+        YamlConfiguration config = new YamlConfiguration();
+
+        config.set("uuid", afkPlayer.getUuid().toString());
+        config.set("name", afkPlayer.getName());
+        config.set("total-afk-time", afkPlayer.getTotalAFKTime());
+        config.set("total-rewards", afkPlayer.getTotalRewards());
+        config.set("last-reward-time", afkPlayer.getLastRewardTime());
+        config.set("last-reward-name", afkPlayer.getLastRewardName());
+        config.set("rewards-disabled", afkPlayer.isRewardsDisabled());
+
+        // Save rewards by type
+        config.set("rewards-by-type", afkPlayer.getRewardsByType());
+
+        config.save(playerFile);
+    }
+
+    @Override
+    public boolean delete(UUID uuid) throws IOException {
+        File playerFile = new File(dataFolder, uuid.toString() + ".yml");
+        if (!playerFile.exists() || !playerFile.delete()) {
+            return false;
+        }
+
+        synchronized (this) {
+            indexOut.writeByte(INDEX_DELETE);
+            indexOut.writeLong(uuid.getMostSignificantBits());
+            indexOut.writeLong(uuid.getLeastSignificantBits());
+            indexOut.flush();
+            indexRecords++;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized List<PlayerSummary> loadSummaries() throws IOException {
+        indexOut.flush();
+        Map<UUID, PlayerSummary> summaries = readIndex();
+        if (indexRecords > summaries.size() * 2 + INDEX_COMPACT_SLACK) {
+            indexOut.close();
+            writeIndexFile(summaries.values());
+            indexOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile, true)));
+            indexRecords = summaries.size();
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    /**
+     * Replay the index file, stopping at the first incomplete or unreadable record
+     * Sets indexRecords and indexValidLength for the records that were read
+     * @return The latest summary per UUID
+     */
+    private Map<UUID, PlayerSummary> readIndex() throws IOException {
+        Map<UUID, PlayerSummary> summaries = new HashMap<>();
+        int records = 0;
+        long validLength = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            while (true) {
+                byte type = in.readByte();
+                if (type != INDEX_PUT && type != INDEX_DELETE) {
+                    break;
+                }
+
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                long length = 1 + 16;
+                if (type == INDEX_PUT) {
+                    int totalRewards = in.readInt();
+                    long totalAFKTime = in.readLong();
+                    byte[] name = new byte[in.readUnsignedShort()];
+                    in.readFully(name);
+                    summaries.put(uuid, new PlayerSummary(uuid, new String(name, StandardCharsets.UTF_8), totalRewards, totalAFKTime));
+                    length += 4 + 8 + 2 + name.length;
+                } else {
+                    summaries.remove(uuid);
+                }
+
+                records++;
+                validLength += length;
+            }
+        } catch (EOFException ignored) {
+            // End of the index, or a record cut short by a crash
+        }
+
+        indexRecords = records;
+        indexValidLength = validLength;
+        return summaries;
+    }
+
+    /**
+     * Replace the index file with one record per player
+     * The stream appending to the index must be closed while this runs
+     * @param summaries The live summaries
+     */
+    private void writeIndexFile(Collection<PlayerSummary> summaries) throws IOException {
+        File temp = new File(indexFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            for (PlayerSummary summary : summaries) {
+                writeSummary(out, summary.getUuid(), summary.getName(), summary.getTotalRewards(), summary.getTotalAFKTime());
+            }
+        }
+        Files.move(temp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void appendSummary(AFKPlayer afkPlayer) throws IOException {
+        writeSummary(indexOut, afkPlayer.getUuid(), afkPlayer.getName(), afkPlayer.getTotalRewards(), afkPlayer.getTotalAFKTime());
+        indexRecords++;
+    }
+
+    private static void writeSummary(DataOutputStream out, UUID uuid, String name, int totalRewards, long totalAFKTime)
+            throws IOException {
+        out.writeByte(INDEX_PUT);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+        out.writeInt(totalRewards);
+        out.writeLong(totalAFKTime);
+
+        byte[] bytes = (name != null ? name : "Unknown").getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+        out.writeShort(length);
+        out.write(bytes, 0, length);
+    }
+
+    @Override
+    public int count() {
+        File[] files = dataFolder.listFiles((dir, name) -> name.endsWith(".yml"));
+        return files != null ? files.length : 0;
+    }
+
+    /**
+     * List the UUIDs of every stored player (used for migration)
+     * @return Stored UUIDs
+     */
+    public List<UUID> listStored() {
+        List<UUID> uuids = new ArrayList<>();
+        File[] files = dataFolder.listFiles((dir, name) -> name.endsWith(".yml"));
+        if (files == null) {
+            return uuids;
+        }
+
+        for (File file : files) {
+            String name = file.getName();
+            try {
+                uuids.add(UUID.fromString(name.substring(0, name.length() - 4)));
+            } catch (IllegalArgumentException ignored) {
+                // Not a player file
+            }
+        }
+        return uuids;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (indexOut == null) {
+            return;
+        }
+        try {
+            indexOut.close();
+        } catch (IOException ignored) {
+            // Nothing more can be done at shutdown
+        }
+        indexOut = null;
+    }
+
+    @Override
+    public String getName() {
+        return "YAML";
+    }
+}
@@ -101,7 +101,7 @@ public class ActionBarTask {
      * @return Time remaining in milliseconds
      */
     private long calculateTimeRemaining(AFKPlayer afkPlayer) {
-        long rewardInterval = plugin.getConfigManager().getRewardInterval();
+        long rewardInterval = plugin.getConfigManager().getRewardInterval(afkPlayer.getZoneId());
         long currentTime = System.currentTimeMillis();
         long timeSinceLastReward = currentTime - afkPlayer.getLastRewardTime();
         long timeRemaining = rewardInterval - timeSinceLastReward;
@@ -124,6 +124,8 @@ public class ActionBarTask {
         message = message.replace("%afkpool_last_reward%", afkPlayer.getLastRewardName());
         message = message.replace("%afkpool_in_region%", afkPlayer.isInRegion() ? "Yes" : "No");
         message = message.replace("%afkpool_session_time%", MessageUtil.formatTime(afkPlayer.getSessionTime()));
+        message = message.replace("%afkpool_reward_tier%", plugin.getRewardManager()
+            .getPoolName(afkPlayer, plugin.getConfigManager().getZone(afkPlayer.getZoneId())).toUpperCase());
 
         // PlaceholderAPI support (without colorizing to legacy)
         if (player != null) {
@@ -0,0 +1,104 @@
+package dev.alone.aFKZone.task;
+
+import dev.alone.aFKZone.AFKZone;
+import dev.alone.aFKZone.data.Zone;
+import dev.alone.aFKZone.util.FoliaScheduler;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Task that checks a bounded slice of online players every tick
+ * Each player is visited once per region-check-interval (or slower if
+ * players-per-tick caps the slice), independent of how much they move
+ */
+public class RegionScanTask {
+
+    private final AFKZone plugin;
+    private final List<Player> cycle;
+    private int cursor;
+    private int perTick;
+    private ScheduledTask task;
+
+    /**
+     * Create a new RegionScanTask
+     * @param plugin The plugin instance
+     */
+    public RegionScanTask(AFKZone plugin) {
+        this.plugin = plugin;
+        this.cycle = new ArrayList<>();
+    }
+
+    /**
+     * Check the next slice of players
+     */
+    private void executeTask() {
+        if (!plugin.getConfigManager().isRegionScannerEnabled()) {
+            if (!cycle.isEmpty()) {
+                cycle.clear();
+                cursor = 0;
+            }
+            return;
+        }
+
+        try {
+            if (cursor >= cycle.size()) {
+                startCycle();
+            }
+
+            int end = Math.min(cycle.size(), cursor + perTick);
+            for (; cursor < end; cursor++) {
+                Player player = cycle.get(cursor);
+                if (!player.isOnline()) {
+                    continue;
+                }
+
+                // Location must be read on the player's region thread
+                FoliaScheduler.runEntity(plugin, player, () -> {
+                    Zone zone = plugin.getRegionManager().getZone(player);
+                    plugin.getAFKManager().updateRegionStatus(player, zone);
+                });
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Error in RegionScanTask: " + e.getMessage());
+            if (plugin.getConfigManager().isDebug()) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Snapshot the online players and size the per-tick slice so the whole
+     * cycle spans region-check-interval ticks, capped at players-per-tick
+     */
+    private void startCycle() {
+        cycle.clear();
+        cycle.addAll(Bukkit.getOnlinePlayers());
+        cursor = 0;
+
+        int interval = Math.max(1, plugin.getConfigManager().getRegionCheckInterval());
+        int maxPerTick = Math.max(1, plugin.getConfigManager().getPlayersPerTick());
+        int spread = (cycle.size() + interval - 1) / interval;
+        perTick = Math.max(1, Math.min(maxPerTick, spread));
+    }
+
+    /**
+     * Start the task
+     */
+    public void start() {
+        task = FoliaScheduler.runGlobalTimer(plugin, this::executeTask, 1L, 1L);
+        plugin.getLogger().info("RegionScanTask started");
+    }
+
+    /**
+     * Cancel the task
+     */
+    public void cancel() {
+        if (task != null) {
+            task.cancel();
+        }
+    }
+}
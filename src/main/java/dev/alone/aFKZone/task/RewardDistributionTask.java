@@ -5,8 +5,8 @@ import dev.alone.aFKZone.util.FoliaScheduler;
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 
 /**
- * Task that checks and grants rewards to eligible players
- * Uses Folia's GlobalRegionScheduler for region-aware execution
+ * Task that plans rewards for players whose deadline has passed
+ * Runs on Folia's GlobalRegionScheduler; delivery is handed to region threads
  */
 public class RewardDistributionTask {
 
@@ -0,0 +1,105 @@
+package dev.alone.aFKZone.util;
+
+import java.util.Random;
+
+/**
+ * Immutable alias table (Vose's method) for O(1) weighted sampling
+ * Each sample costs one bounded int and one double, independent of the entry count
+ */
+public final class AliasTable {
+
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * Build an alias table from a set of weights
+     * Non-positive weights are never selected
+     * @param weights The weights, one per entry
+     * @throws IllegalArgumentException if no weight is positive
+     */
+    public AliasTable(double[] weights) {
+        int count = weights.length;
+        double totalWeight = 0;
+        int firstPositive = -1;
+        for (int i = 0; i < count; i++) {
+            if (weights[i] > 0) {
+                totalWeight += weights[i];
+                if (firstPositive < 0) {
+                    firstPositive = i;
+                }
+            }
+        }
+
+        if (count == 0 || totalWeight <= 0) {
+            throw new IllegalArgumentException("An alias table needs at least one positive weight");
+        }
+
+        this.probability = new double[count];
+        this.alias = new int[count];
+
+        // Scale so the average column height is 1, then split columns into small and large
+        double[] scaled = new double[count];
+        int[] small = new int[count];
+        int[] large = new int[count];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            alias[i] = i;
+            scaled[i] = weights[i] > 0 ? weights[i] * count / totalWeight : 0;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        // Top up each small column with the remainder of a large one
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1.0;
+        }
+
+        // Only rounding drift leaves columns here; their height is already ~1
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            if (weights[index] > 0) {
+                probability[index] = 1.0;
+            } else {
+                alias[index] = firstPositive;
+            }
+        }
+    }
+
+    /**
+     * Draw a weighted random index
+     * @param random The random source
+     * @return Index into the original weights
+     */
+    public int sample(Random random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * Get the number of entries
+     * @return Entry count
+     */
+    public int size() {
+        return probability.length;
+    }
+}
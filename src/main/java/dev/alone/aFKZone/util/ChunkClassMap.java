@@ -0,0 +1,103 @@
+package dev.alone.aFKZone.util;
+
+/**
+ * Open-addressing map from packed chunk keys to a chunk classification
+ * Keys and values are primitives, so lookups never box
+ * Filled once while building a zone snapshot and read-only afterwards
+ */
+public final class ChunkClassMap {
+
+    public static final byte OUTSIDE = 0;
+    public static final byte INSIDE = 1;
+    public static final byte BOUNDARY = 2;
+
+    private final long[] keys;
+    private final byte[] values;
+    private final int mask;
+    private int size;
+
+    /**
+     * Create a new ChunkClassMap
+     * @param expectedSize The number of entries that will be stored
+     */
+    public ChunkClassMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new byte[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Pack chunk coordinates into a single key
+     * @param chunkX Chunk X
+     * @param chunkZ Chunk Z
+     * @return Packed key
+     */
+    public static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Store a classification (OUTSIDE entries are implicit and not stored)
+     * @param key Packed chunk key
+     * @param value INSIDE or BOUNDARY
+     */
+    public void put(long key, byte value) {
+        if (value == OUTSIDE) {
+            return;
+        }
+
+        int slot = slot(key);
+        while (values[slot] != OUTSIDE) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size + 1 > (mask + 1) / 2) {
+            throw new IllegalStateException("ChunkClassMap is full");
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Get the classification of a chunk
+     * @param key Packed chunk key
+     * @return INSIDE, BOUNDARY, or OUTSIDE if not stored
+     */
+    public byte get(long key) {
+        int slot = slot(key);
+        byte value;
+        while ((value = values[slot]) != OUTSIDE) {
+            if (keys[slot] == key) {
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return OUTSIDE;
+    }
+
+    /**
+     * Get the number of stored (non-outside) chunks
+     * @return Entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        // Murmur3 finalizer to spread neighbouring chunk coordinates
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a85ec3L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
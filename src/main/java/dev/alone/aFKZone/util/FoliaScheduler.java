@@ -0,0 +1,93 @@
+package dev.alone.aFKZone.util;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thin wrapper over the Folia schedulers, so every task goes through one place
+ * Delays and periods are in ticks (50ms) for every scheduler
+ */
+public final class FoliaScheduler {
+
+    private static final long MILLIS_PER_TICK = 50L;
+
+    private FoliaScheduler() {
+    }
+
+    /**
+     * Run a task off the server threads
+     * @param plugin The plugin owning the task
+     * @param task The task
+     * @return The scheduled task
+     */
+    public static ScheduledTask runAsync(Plugin plugin, Runnable task) {
+        return Bukkit.getAsyncScheduler().runNow(plugin, scheduled -> task.run());
+    }
+
+    /**
+     * Run a task off the server threads at a fixed rate
+     * @param plugin The plugin owning the task
+     * @param task The task
+     * @param delay Initial delay in ticks
+     * @param period Period in ticks
+     * @return The scheduled task
+     */
+    public static ScheduledTask runAsyncTimer(Plugin plugin, Runnable task, long delay, long period) {
+        return Bukkit.getAsyncScheduler().runAtFixedRate(plugin, scheduled -> task.run(),
+            Math.max(0L, delay) * MILLIS_PER_TICK, Math.max(1L, period) * MILLIS_PER_TICK, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run a task on the thread owning an entity
+     * @param plugin The plugin owning the task
+     * @param entity The entity
+     * @param task The task
+     * @return The scheduled task, or null if the entity was removed
+     */
+    public static ScheduledTask runEntity(Plugin plugin, Entity entity, Runnable task) {
+        return entity.getScheduler().run(plugin, scheduled -> task.run(), null);
+    }
+
+    /**
+     * Run a task on the thread owning a region of a world
+     * @param plugin The plugin owning the task
+     * @param world The world
+     * @param chunkX X coordinate of a chunk in the region
+     * @param chunkZ Z coordinate of a chunk in the region
+     * @param task The task
+     * @param delay Delay in ticks
+     * @return The scheduled task
+     */
+    public static ScheduledTask runRegionDelayed(Plugin plugin, World world, int chunkX, int chunkZ, Runnable task, long delay) {
+        return Bukkit.getRegionScheduler().runDelayed(plugin, world, chunkX, chunkZ, scheduled -> task.run(),
+            Math.max(1L, delay));
+    }
+
+    /**
+     * Run a task on the global region thread
+     * @param plugin The plugin owning the task
+     * @param task The task
+     * @return The scheduled task
+     */
+    public static ScheduledTask runGlobal(Plugin plugin, Runnable task) {
+        return Bukkit.getGlobalRegionScheduler().run(plugin, scheduled -> task.run());
+    }
+
+    /**
+     * Run a task on the global region thread at a fixed rate
+     * @param plugin The plugin owning the task
+     * @param task The task
+     * @param delay Initial delay in ticks
+     * @param period Period in ticks
+     * @return The scheduled task
+     */
+    public static ScheduledTask runGlobalTimer(Plugin plugin, Runnable task, long delay, long period) {
+        return Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> task.run(),
+            Math.max(1L, delay), Math.max(1L, period));
+    }
+}
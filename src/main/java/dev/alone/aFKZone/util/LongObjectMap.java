@@ -0,0 +1,90 @@
+package dev.alone.aFKZone.util;
+
+/**
+ * Open-addressing map from primitive long keys to objects
+ * Sized up front, filled once and read-only afterwards
+ * @param <V> The value type
+ */
+public final class LongObjectMap<V> {
+
+    private final long[] keys;
+    private final Object[] values;
+    private final int mask;
+    private int size;
+
+    /**
+     * Create a new LongObjectMap
+     * @param expectedSize The number of entries that will be stored
+     */
+    public LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Store a value
+     * @param key The key
+     * @param value The value (must not be null)
+     */
+    public void put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size + 1 > (mask + 1) / 2) {
+            throw new IllegalStateException("LongObjectMap is full");
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Get a value
+     * @param key The key
+     * @return The value, or null if absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = slot(key);
+        Object value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of entries
+     * @return Entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        // Murmur3 finalizer to spread neighbouring coordinates
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a85ec3L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
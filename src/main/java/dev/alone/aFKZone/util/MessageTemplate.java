@@ -0,0 +1,101 @@
+package dev.alone.aFKZone.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.entity.Player;
+
+import java.util.regex.Pattern;
+
+/**
+ * A configured message parsed once into a component tree with named slots
+ * Sending only fills the slots; the MiniMessage parse happens per reload
+ */
+public final class MessageTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("%[^%\\s]+%");
+
+    private final String raw;
+    private final Component component;
+    private final String[] slots;
+    private final Pattern[] slotPatterns;
+    private final boolean externalPlaceholders;
+
+    private MessageTemplate(String raw, Component component, String[] slots, boolean externalPlaceholders) {
+        this.raw = raw;
+        this.component = component;
+        this.slots = slots;
+        this.slotPatterns = new Pattern[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            slotPatterns[i] = Pattern.compile(slots[i], Pattern.LITERAL);
+        }
+        this.externalPlaceholders = externalPlaceholders;
+    }
+
+    /**
+     * Compile a message template
+     * @param message The configured message (MiniMessage or legacy codes)
+     * @param prefix The prefix substituted for %prefix%
+     * @param slots Slot names filled at send time, without percent signs
+     * @return The compiled template
+     */
+    public static MessageTemplate compile(String message, String prefix, String... slots) {
+        String raw = message != null ? message.replace("%prefix%", prefix) : "";
+
+        String[] literals = new String[slots.length];
+        String remaining = raw;
+        for (int i = 0; i < slots.length; i++) {
+            literals[i] = "%" + slots[i] + "%";
+            remaining = remaining.replace(literals[i], "");
+        }
+
+        // Anything else between percent signs is left for PlaceholderAPI
+        boolean external = PLACEHOLDER.matcher(remaining).find();
+        return new MessageTemplate(raw, MessageUtil.toComponent(raw), literals, external);
+    }
+
+    /**
+     * Render the template for a player
+     * Values are Strings (inserted as plain text) or Components, in slot order
+     * Messages containing PlaceholderAPI placeholders fall back to a per-send parse
+     * @param player The player for placeholder context, or null to skip PlaceholderAPI
+     * @param values Slot values
+     * @return The rendered component
+     */
+    public Component render(Player player, Object... values) {
+        if (externalPlaceholders && player != null && MessageUtil.isPlaceholderAPIAvailable()) {
+            String message = raw;
+            for (int i = 0; i < slots.length && i < values.length; i++) {
+                message = message.replace(slots[i], toText(values[i]));
+            }
+            return MessageUtil.toComponentWithPlaceholders(player, message);
+        }
+
+        Component result = component;
+        for (int i = 0; i < slots.length && i < values.length; i++) {
+            Component value = values[i] instanceof Component
+                ? (Component) values[i]
+                : Component.text(String.valueOf(values[i]));
+            result = result.replaceText(TextReplacementConfig.builder()
+                .match(slotPatterns[i])
+                .replacement(value)
+                .build());
+        }
+        return result;
+    }
+
+    /**
+     * Check if the configured message is empty
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return raw.isEmpty();
+    }
+
+    private static String toText(Object value) {
+        if (value instanceof Component) {
+            return MiniMessage.miniMessage().serialize((Component) value);
+        }
+        return String.valueOf(value);
+    }
+}
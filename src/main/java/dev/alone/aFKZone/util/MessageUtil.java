@@ -192,7 +192,7 @@ public class MessageUtil {
      * Check if PlaceholderAPI is available
      * @return true if PlaceholderAPI is available
      */
-    private static boolean isPlaceholderAPIAvailable() {
+    static boolean isPlaceholderAPIAvailable() {
         try {
             Class.forName("me.clip.placeholderapi.PlaceholderAPI");
             return true;
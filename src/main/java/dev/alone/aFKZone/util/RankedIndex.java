@@ -0,0 +1,266 @@
+package dev.alone.aFKZone.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic index of entries ranked by a score, highest first
+ * A treap with subtree sizes: updates and rank lookups cost O(log n),
+ * reading the top k costs O(k + log n), and nothing is ever fully sorted
+ * Ties are broken by UUID so every entry has a stable position
+ * @param <V> The value stored with each entry
+ */
+public final class RankedIndex<V> {
+
+    private final Map<UUID, Node<V>> nodes;
+    private Node<V> root;
+
+    /**
+     * Create an empty RankedIndex
+     */
+    public RankedIndex() {
+        this.nodes = new HashMap<>();
+    }
+
+    /**
+     * Insert an entry or move it to a new score
+     * @param id The entry's UUID
+     * @param score The entry's score
+     * @param value The value returned by {@link #top(int)}
+     */
+    public synchronized void update(UUID id, long score, V value) {
+        Node<V> existing = nodes.get(id);
+        if (existing != null) {
+            if (existing.score == score) {
+                existing.value = value;
+                return;
+            }
+            root = remove(root, existing.score, id);
+        }
+
+        Node<V> node = new Node<>(id, score, value, ThreadLocalRandom.current().nextInt());
+        nodes.put(id, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Insert an entry only if it is not already present
+     * @param id The entry's UUID
+     * @param score The entry's score
+     * @param value The value returned by {@link #top(int)}
+     * @return true if the entry was inserted
+     */
+    public synchronized boolean putIfAbsent(UUID id, long score, V value) {
+        if (nodes.containsKey(id)) {
+            return false;
+        }
+        Node<V> node = new Node<>(id, score, value, ThreadLocalRandom.current().nextInt());
+        nodes.put(id, node);
+        root = insert(root, node);
+        return true;
+    }
+
+    /**
+     * Remove an entry
+     * @param id The entry's UUID
+     * @return true if the entry was present
+     */
+    public synchronized boolean remove(UUID id) {
+        Node<V> existing = nodes.remove(id);
+        if (existing == null) {
+            return false;
+        }
+        root = remove(root, existing.score, id);
+        return true;
+    }
+
+    /**
+     * Get an entry's rank
+     * @param id The entry's UUID
+     * @return The rank (1-indexed), or -1 if not present
+     */
+    public synchronized int rank(UUID id) {
+        Node<V> target = nodes.get(id);
+        if (target == null) {
+            return -1;
+        }
+
+        int before = 0;
+        Node<V> node = root;
+        while (node != null) {
+            int cmp = compare(target.score, id, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                before += size(node.left) + 1;
+                node = node.right;
+            } else {
+                before += size(node.left);
+                break;
+            }
+        }
+        return before + 1;
+    }
+
+    /**
+     * Get the highest ranked values
+     * @param limit Maximum number of values
+     * @return Values in rank order
+     */
+    public synchronized List<V> top(int limit) {
+        List<V> top = new ArrayList<>(Math.min(Math.max(limit, 0), nodes.size()));
+        ArrayDeque<Node<V>> stack = new ArrayDeque<>();
+        Node<V> node = root;
+
+        // In-order walk that stops after limit entries
+        while (top.size() < limit && (node != null || !stack.isEmpty())) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            top.add(node.value);
+            node = node.right;
+        }
+        return top;
+    }
+
+    /**
+     * Get the number of entries
+     * @return Entry count
+     */
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Remove every entry
+     */
+    public synchronized void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    private static <V> Node<V> insert(Node<V> tree, Node<V> node) {
+        if (tree == null) {
+            return node;
+        }
+
+        if (node.priority > tree.priority) {
+            split(tree, node.score, node.id, node);
+            node.updateSize();
+            return node;
+        }
+
+        if (compare(node.score, node.id, tree) < 0) {
+            tree.left = insert(tree.left, node);
+        } else {
+            tree.right = insert(tree.right, node);
+        }
+        tree.updateSize();
+        return tree;
+    }
+
+    /**
+     * Split a tree around a key, storing the lower part in into.left and the rest in into.right
+     */
+    private static <V> void split(Node<V> tree, long score, UUID id, Node<V> into) {
+        if (tree == null) {
+            into.left = null;
+            into.right = null;
+            return;
+        }
+
+        if (compare(score, id, tree) > 0) {
+            // tree and its left subtree come before the key
+            split(tree.right, score, id, into);
+            tree.right = into.left;
+            tree.updateSize();
+            into.left = tree;
+        } else {
+            split(tree.left, score, id, into);
+            tree.left = into.right;
+            tree.updateSize();
+            into.right = tree;
+        }
+    }
+
+    private static <V> Node<V> remove(Node<V> tree, long score, UUID id) {
+        if (tree == null) {
+            return null;
+        }
+
+        int cmp = compare(score, id, tree);
+        if (cmp == 0) {
+            return merge(tree.left, tree.right);
+        }
+
+        if (cmp < 0) {
+            tree.left = remove(tree.left, score, id);
+        } else {
+            tree.right = remove(tree.right, score, id);
+        }
+        tree.updateSize();
+        return tree;
+    }
+
+    private static <V> Node<V> merge(Node<V> left, Node<V> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.updateSize();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.updateSize();
+        return right;
+    }
+
+    /**
+     * Compare a key with a node: negative if the key ranks before it
+     */
+    private static int compare(long score, UUID id, Node<?> node) {
+        int cmp = Long.compare(node.score, score);
+        return cmp != 0 ? cmp : id.compareTo(node.id);
+    }
+
+    private static int size(Node<?> node) {
+        return node != null ? node.size : 0;
+    }
+
+    /**
+     * A treap node
+     */
+    private static final class Node<V> {
+        private final UUID id;
+        private final long score;
+        private final int priority;
+        private V value;
+        private Node<V> left;
+        private Node<V> right;
+        private int size;
+
+        private Node(UUID id, long score, V value, int priority) {
+            this.id = id;
+            this.score = score;
+            this.value = value;
+            this.priority = priority;
+            this.size = 1;
+        }
+
+        private void updateSize() {
+            size = 1 + RankedIndex.size(left) + RankedIndex.size(right);
+        }
+    }
+}